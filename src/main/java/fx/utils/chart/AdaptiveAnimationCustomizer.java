@@ -0,0 +1,183 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.chart;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.scene.chart.Chart;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customizer which switches chart animation off while the chart is updated faster than animations can complete
+ * or pulses are delayed, and switches it on again after a quiet period.
+ * Updates are detected by layout requests of the chart, which every data change and every running animation
+ * produce, so no listener is registered per series or per data item.
+ * While animation is on, the chart is overloaded when its layout is requested in almost every pulse of a window,
+ * that is animations never complete before the next update. While animation is off, update rate is measured
+ * in pulses with at least one layout request, so a batch of changes counts once.
+ * The pulse timer runs only while updates arrive or animation is switched off by the customizer
+ */
+class AdaptiveAnimationCustomizer implements Customizer {
+    static final double DEFAULT_MAX_UPDATE_RATE = 2;
+    static final long DEFAULT_MAX_PULSE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+    private static final int QUIET_WINDOWS = 2;
+    private static final double MAX_BUSY_RATIO = 0.9;
+    private final Chart chart;
+    private final double maxUpdateRate;
+    private final long maxPulseInterval;
+    private final ChangeListener<Boolean> layoutListener = (observable, oldValue, isNeeded) -> {
+        if (isNeeded)
+            markChanged();
+    };
+    private final InvalidationListener animatedListener = observable -> animatedChanged();
+    private final WeakChangeListener<Boolean> weakLayoutListener = new WeakChangeListener<>(layoutListener);
+    private final WeakInvalidationListener weakAnimatedListener = new WeakInvalidationListener(animatedListener);
+    private final AnimationTimer pulseTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            pulse(now);
+        }
+    };
+    private boolean isCustomized;
+    private boolean isAnimationRequested;
+    private boolean isAnimationChanging;
+    private boolean isTimerStarted;
+    private boolean isChanged;
+    private long windowStart;
+    private long lastPulse;
+    private long pulseTime;
+    private int pulses;
+    private int updatedPulses;
+    private int quietWindows;
+
+    /**
+     * @param chart            customized chart
+     * @param maxUpdateRate    count of updated pulses per second above which switched off animation stays off,
+     *                         it's switched on again below half of the rate
+     * @param maxPulseInterval maximal average interval between pulses in nanoseconds for which animation stays on
+     */
+    AdaptiveAnimationCustomizer(Chart chart, double maxUpdateRate, long maxPulseInterval) {
+        this.chart = chart;
+        this.maxUpdateRate = maxUpdateRate;
+        this.maxPulseInterval = maxPulseInterval;
+    }
+
+    @Override
+    public void customize() {
+        if (!isCustomized) {
+            isCustomized = true;
+            isAnimationRequested = chart.getAnimated();
+            chart.animatedProperty().addListener(weakAnimatedListener);
+            chart.needsLayoutProperty().addListener(weakLayoutListener);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            chart.needsLayoutProperty().removeListener(weakLayoutListener);
+            chart.animatedProperty().removeListener(weakAnimatedListener);
+            stopTimer();
+            setAnimated(isAnimationRequested);
+        }
+    }
+
+    private void animatedChanged() {
+        if (!isAnimationChanging)
+            isAnimationRequested = chart.getAnimated();
+    }
+
+    private void markChanged() {
+        isChanged = true;
+        if (!isTimerStarted) {
+            isTimerStarted = true;
+            pulseTimer.start();
+        }
+    }
+
+    private void pulse(long now) {
+        if (lastPulse != 0) {
+            pulseTime += now - lastPulse;
+            pulses++;
+        } else {
+            windowStart = now;
+        }
+        lastPulse = now;
+        if (isChanged) {
+            isChanged = false;
+            updatedPulses++;
+        }
+        if (now - windowStart >= WINDOW)
+            evaluate(now);
+    }
+
+    /**
+     * Switches animation at the end of measurement window. Animation is switched off at once and switched on
+     * only after several quiet windows, so the chart doesn't flip between modes on bursty load.
+     * Running animations request layout on every pulse, so update rate is meaningful only while animation is off
+     */
+    private void evaluate(long now) {
+        final double updateRate = updatedPulses * (double) TimeUnit.SECONDS.toNanos(1) / (now - windowStart);
+        final long pulseInterval = pulses == 0 ? 0 : pulseTime / pulses;
+        final boolean isUpdated = updatedPulses > 0;
+        final boolean isOverloaded = chart.getAnimated()
+                ? pulses > 0 && updatedPulses > pulses * MAX_BUSY_RATIO
+                : updateRate > maxUpdateRate;
+        if (isOverloaded || (isUpdated && pulseInterval > maxPulseInterval)) {
+            quietWindows = 0;
+            setAnimated(false);
+        } else if (!chart.getAnimated() && updateRate <= maxUpdateRate / 2) {
+            if (++quietWindows >= QUIET_WINDOWS)
+                setAnimated(isAnimationRequested);
+        } else {
+            quietWindows = 0;
+        }
+        windowStart = now;
+        pulseTime = 0;
+        pulses = 0;
+        updatedPulses = 0;
+        if (!isUpdated && chart.getAnimated() == isAnimationRequested)
+            stopTimer();
+    }
+
+    private void setAnimated(boolean animated) {
+        if (chart.getAnimated() != animated) {
+            isAnimationChanging = true;
+            chart.setAnimated(animated);
+            isAnimationChanging = false;
+        }
+    }
+
+    private void stopTimer() {
+        isTimerStarted = false;
+        pulseTimer.stop();
+        isChanged = false;
+        lastPulse = 0;
+        pulseTime = 0;
+        pulses = 0;
+        updatedPulses = 0;
+        quietWindows = 0;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
+import javafx.scene.Node;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.paint.Color;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Bar customizer which collects added data and applies colors once per pulse.
+ * All series share the same data listener. Only data which has no node at the pulse gets the shared node listener,
+ * so bulk replacement of series data costs a single pass over the added items
+ */
+class BatchedBarCustomizer extends InstrumentedCustomizer {
+    private final BarChart<String, ?> barChart;
+    private final Function<String, Optional<Color>> colorByNameSupplier;
+    private final Set<XYChart.Data<String, ?>> pendingData = new LinkedHashSet<>();
+    private final ListChangeListener<XYChart.Data<String, ?>> dataListener = change -> {
+        handleBatch(() -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::dataRemoved);
+                change.getAddedSubList().forEach(this::dataAdded);
+            }
+        });
+    };
+    private final ListChangeListener<XYChart.Series<String, ?>> seriesListener = c -> {
+        handleBatch(() -> {
+            while (c.next()) {
+                c.getRemoved().forEach(this::seriesRemoved);
+                c.getAddedSubList().forEach(this::seriesAdded);
+            }
+        });
+    };
+    private final ChangeListener<Node> nodeListener = this::nodeChanged;
+    private final WeakListChangeListener<XYChart.Data<String, ?>> weakDataListener = new WeakListChangeListener<>(dataListener);
+    private final WeakListChangeListener<XYChart.Series<String, ?>> weakSeriesListener = new WeakListChangeListener<>(seriesListener);
+    private final WeakChangeListener<Node> weakNodeListener = new WeakChangeListener<>(nodeListener);
+    private final AnimationTimer pulseTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            applyColors();
+        }
+    };
+    private boolean isCustomized;
+    private boolean isTimerStarted;
+
+    BatchedBarCustomizer(BarChart<String, ?> barChart, Function<String, Optional<Color>> colorByNameSupplier) {
+        this.barChart = barChart;
+        this.colorByNameSupplier = colorByNameSupplier;
+    }
+
+    public void customize() {
+        if (!isCustomized) {
+            isCustomized = true;
+            barChart.getData().addListener(weakSeriesListener);
+            listenerRegistered();
+            barChart.getData().forEach(this::seriesAdded);
+        }
+    }
+
+    @Override
+    public void refreshColors() {
+        if (isCustomized) {
+            barChart.getData().forEach(series -> series.getData().forEach(this::dataAdded));
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            barChart.getData().removeListener(weakSeriesListener);
+            barChart.getData().forEach(this::seriesRemoved);
+            pendingData.clear();
+            isTimerStarted = false;
+            pulseTimer.stop();
+        }
+    }
+
+    private void seriesAdded(XYChart.Series<String, ?> series) {
+        series.getData().addListener(weakDataListener);
+        listenerRegistered();
+        series.getData().forEach(this::dataAdded);
+    }
+
+    private void seriesRemoved(XYChart.Series<String, ?> series) {
+        series.getData().removeListener(weakDataListener);
+        series.getData().forEach(this::dataRemoved);
+    }
+
+    private void dataAdded(XYChart.Data<String, ?> data) {
+        pendingData.add(data);
+        if (!isTimerStarted) {
+            isTimerStarted = true;
+            pulseTimer.start();
+        }
+    }
+
+    private void dataRemoved(XYChart.Data<String, ?> data) {
+        pendingData.remove(data);
+        data.nodeProperty().removeListener(weakNodeListener);
+    }
+
+    /**
+     * Colors all pending data which already has nodes. Data without nodes is colored by the shared node listener
+     * once its node is created, so the timer is stopped after every pulse
+     */
+    private void applyColors() {
+        try {
+            handleBatch(() -> {
+                for (XYChart.Data<String, ?> data : pendingData) {
+                    final Node node = data.getNode();
+                    if (nonNull(node)) {
+                        updateColor(data, node);
+                    } else {
+                        data.nodeProperty().removeListener(weakNodeListener);
+                        data.nodeProperty().addListener(weakNodeListener);
+                        listenerRegistered();
+                    }
+                }
+            });
+        } finally {
+            pendingData.clear();
+            isTimerStarted = false;
+            pulseTimer.stop();
+        }
+    }
+
+    private void updateColor(XYChart.Data<String, ?> data, Node node) {
+        colorByNameSupplier.apply(data.getXValue()).ifPresent(color -> setNodeColor(color, node));
+    }
+
+    private void nodeChanged(ObservableValue<? extends Node> observable, Node oldNode, Node newNode) {
+        if (nonNull(newNode)) {
+            observable.removeListener(weakNodeListener);
+            final Object bean = ((ReadOnlyProperty<?>) observable).getBean();
+            if (bean instanceof XYChart.Data) {
+                @SuppressWarnings("unchecked") final XYChart.Data<String, ?> data = (XYChart.Data<String, ?>) bean;
+                updateColor(data, newNode);
+            }
+        }
+    }
+}
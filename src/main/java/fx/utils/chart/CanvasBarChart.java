@@ -0,0 +1,251 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.beans.Observable;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bar chart drawn on a single canvas. Unlike {@link javafx.scene.chart.BarChart} it creates no node per bar,
+ * so rendering cost does not depend on count of nodes and thousands of categories stay interactive.
+ * Bars are colored by the same color supplier as {@link ChartCustomizers#forBarChart}, whole chart is redrawn
+ * at most once per pulse. Tooltip of hovered bar is found by its position without per-bar hit areas.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final CanvasBarChart chart = new CanvasBarChart(name -&gt; Optional.ofNullable(colorMapping.get(name)));
+ *     chart.getData().add(new XYChart.Data&lt;&gt;("Austria", 25));
+ *
+ * </code></pre>
+ */
+public class CanvasBarChart extends Region {
+    private static final double AXIS_WIDTH = 48.0;
+    private static final double PADDING = 8.0;
+    private static final int TICK_COUNT = 5;
+    private static final double CURSOR_OFFSET = 16.0;
+    private final ObservableList<XYChart.Data<String, Number>> data = FXCollections.observableArrayList(
+            item -> new Observable[]{item.XValueProperty(), item.YValueProperty()});
+    private final Canvas canvas = new Canvas();
+    private final Tooltip tooltip = new Tooltip();
+    private final ColorCache colorCache;
+    private Color defaultColor = Color.GRAY;
+    private Color axisColor = Color.gray(0.4);
+    private boolean isDirty = true;
+    private double minValue;
+    private double maxValue;
+
+    public CanvasBarChart(Function<String, Optional<Color>> colorByNameSupplier) {
+        this.colorCache = ColorCache.of(colorByNameSupplier);
+        getStyleClass().add("canvas-bar-chart");
+        getChildren().add(canvas);
+        data.addListener((Observable observable) -> invalidate());
+        addEventHandler(MouseEvent.MOUSE_MOVED, this::mouseMoved);
+        addEventHandler(MouseEvent.MOUSE_EXITED, event -> tooltip.hide());
+    }
+
+    public ObservableList<XYChart.Data<String, Number>> getData() {
+        return data;
+    }
+
+    /**
+     * @param defaultColor color of bars which have no color in supplier
+     */
+    public void setDefaultColor(Color defaultColor) {
+        this.defaultColor = defaultColor;
+        invalidate();
+    }
+
+    public void setAxisColor(Color axisColor) {
+        this.axisColor = axisColor;
+        invalidate();
+    }
+
+    /**
+     * Drops memoized colors and redraws the chart
+     */
+    public void invalidateColors() {
+        colorCache.invalidateAll();
+        invalidate();
+    }
+
+    /**
+     * @param x x coordinate in local coordinates of the chart
+     * @param y y coordinate in local coordinates of the chart
+     * @return index of data under the point or -1
+     */
+    public int indexAt(double x, double y) {
+        final int count = data.size();
+        final double plotWidth = getPlotWidth();
+        if (count == 0 || plotWidth <= 0 || x < plotLeft() || x >= plotLeft() + plotWidth) {
+            return -1;
+        }
+        final int index = (int) ((x - plotLeft()) / (plotWidth / count));
+        if (index >= count) {
+            return -1;
+        }
+        final double value = valueOf(data.get(index));
+        final double barTop = valueToY(Math.max(value, 0));
+        final double barBottom = valueToY(Math.min(value, 0));
+        return y >= barTop && y <= barBottom ? index : -1;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        final double width = snapSize(getWidth());
+        final double height = snapSize(getHeight());
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            isDirty = true;
+        }
+        if (isDirty) {
+            isDirty = false;
+            draw();
+        }
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return 400;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return 300;
+    }
+
+    private void invalidate() {
+        isDirty = true;
+        requestLayout();
+    }
+
+    private void draw() {
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        updateRange();
+        final int count = data.size();
+        final double plotWidth = getPlotWidth();
+        if (plotWidth <= 0 || getPlotHeight() <= 0) {
+            return;
+        }
+        drawAxis(gc);
+        if (count == 0) {
+            return;
+        }
+        final double barWidth = plotWidth / count;
+        final double gap = barWidth >= 4 ? barWidth * 0.1 : 0;
+        final double zeroY = valueToY(0);
+        Color currentColor = null;
+        for (int index = 0; index < count; index++) {
+            final XYChart.Data<String, Number> item = data.get(index);
+            final Color color = colorCache.apply(item.getXValue()).orElse(defaultColor);
+            if (color != currentColor) {
+                gc.setFill(color);
+                currentColor = color;
+            }
+            final double valueY = valueToY(valueOf(item));
+            gc.fillRect(plotLeft() + index * barWidth + gap, Math.min(valueY, zeroY),
+                    Math.max(barWidth - 2 * gap, 0.5), Math.abs(zeroY - valueY));
+        }
+    }
+
+    private void drawAxis(GraphicsContext gc) {
+        gc.setStroke(axisColor);
+        gc.setFill(axisColor);
+        gc.setLineWidth(1);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        final double left = plotLeft();
+        gc.strokeLine(left - 0.5, PADDING, left - 0.5, PADDING + getPlotHeight());
+        for (int tick = 0; tick <= TICK_COUNT; tick++) {
+            final double value = minValue + (maxValue - minValue) * tick / TICK_COUNT;
+            final double y = Math.round(valueToY(value)) + 0.5;
+            gc.strokeLine(left - 4, y, left, y);
+            gc.fillText(formatValue(value), left - 6, y);
+        }
+        final double zeroY = Math.round(valueToY(0)) + 0.5;
+        gc.strokeLine(left, zeroY, left + getPlotWidth(), zeroY);
+    }
+
+    private void mouseMoved(MouseEvent event) {
+        final int index = indexAt(event.getX(), event.getY());
+        if (index < 0) {
+            tooltip.hide();
+            return;
+        }
+        final XYChart.Data<String, Number> item = data.get(index);
+        tooltip.setText(item.getXValue() + ": " + formatValue(valueOf(item)));
+        if (getScene() != null && getScene().getWindow() != null) {
+            tooltip.show(this, event.getScreenX(), event.getScreenY() + CURSOR_OFFSET);
+        }
+    }
+
+    private void updateRange() {
+        double min = 0;
+        double max = 0;
+        for (XYChart.Data<String, Number> item : data) {
+            final double value = valueOf(item);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        minValue = min;
+        maxValue = max == min ? min + 1 : max;
+    }
+
+    private double valueToY(double value) {
+        return PADDING + getPlotHeight() * (maxValue - value) / (maxValue - minValue);
+    }
+
+    private double plotLeft() {
+        return AXIS_WIDTH;
+    }
+
+    private double getPlotWidth() {
+        return canvas.getWidth() - AXIS_WIDTH - PADDING;
+    }
+
+    private double getPlotHeight() {
+        return canvas.getHeight() - 2 * PADDING;
+    }
+
+    private static double valueOf(XYChart.Data<String, Number> item) {
+        return item.getYValue() != null ? item.getYValue().doubleValue() : 0;
+    }
+
+    private static String formatValue(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value)
+                : String.format("%.2f", value);
+    }
+}
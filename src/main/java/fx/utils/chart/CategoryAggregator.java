@@ -0,0 +1,207 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.chart;
+
+import javafx.application.Platform;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter of events per category which feeds a bar chart series.
+ * Events may be recorded from any thread, they are counted in striped counters and never reach FX application thread.
+ * A background thread publishes counts at the frame rate and only the changed counts are applied to the series
+ * through {@link SeriesUpdater}, so data nodes and their colors are kept. If FX application thread falls behind,
+ * pending changes are merged and applied at once.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final XYChart.Series&lt;String, Number&gt; series = new XYChart.Series&lt;&gt;();
+ *     barChart.getData().add(series);
+ *     ChartCustomizers.forBarChart(barChart, colorByName).customize();
+ *     final CategoryAggregator aggregator = CategoryAggregator.forSeries(series).withFrameRate(10);
+ *     aggregator.start();
+ *     ...
+ *     aggregator.record(event.getCountry());
+ *     ...
+ *     aggregator.stop();
+ *
+ * </code></pre>
+ */
+public final class CategoryAggregator {
+    private static final double DEFAULT_FRAME_RATE = 25;
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final SeriesUpdater<String, Number> updater;
+    private final AtomicBoolean isApplyScheduled = new AtomicBoolean();
+    private final Object lock = new Object();
+    // accessed by publishing thread only
+    private final Map<String, Long> published = new HashMap<>();
+    private Map<String, Long> pendingChanges = new HashMap<>();
+    private Set<String> pendingRemoved = new HashSet<>();
+    private double frameRate = DEFAULT_FRAME_RATE;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> publishing;
+
+    private CategoryAggregator(XYChart.Series<String, Number> series) {
+        this.updater = SeriesUpdater.forSeries(series);
+    }
+
+    /**
+     * Constructs aggregator which shows counts in the series. Series must be changed by the aggregator only
+     *
+     * @param series target series
+     * @return instance of aggregator
+     */
+    public static CategoryAggregator forSeries(XYChart.Series<String, Number> series) {
+        return new CategoryAggregator(series);
+    }
+
+    /**
+     * @param frameRate count of published snapshots per second
+     * @return this aggregator
+     */
+    public CategoryAggregator withFrameRate(double frameRate) {
+        this.frameRate = frameRate;
+        return this;
+    }
+
+    /**
+     * Counts single event. It may be called from any thread
+     *
+     * @param category event category
+     */
+    public void record(String category) {
+        counter(category).increment();
+    }
+
+    /**
+     * Counts several events. It may be called from any thread
+     *
+     * @param category event category
+     * @param count    count of events
+     */
+    public void record(String category, long count) {
+        counter(category).add(count);
+    }
+
+    /**
+     * Drops all categories, so they are removed from the series on the next snapshot.
+     * Events recorded concurrently with reset may be lost
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    /**
+     * Starts publishing of snapshots on a background daemon thread
+     */
+    public synchronized void start() {
+        if (publishing == null) {
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "category-aggregator");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            final long period = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / frameRate));
+            publishing = executor.scheduleAtFixedRate(this::publish, 0, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stops publishing and releases background thread. Counts are kept, so the aggregator may be started again
+     */
+    public synchronized void stop() {
+        if (publishing != null) {
+            publishing.cancel(false);
+            publishing = null;
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private LongAdder counter(String category) {
+        final LongAdder counter = counters.get(category);
+        return counter != null ? counter : counters.computeIfAbsent(category, key -> new LongAdder());
+    }
+
+    /**
+     * Compares actual counts with the last published ones and hands over the difference to FX application thread
+     */
+    private void publish() {
+        final Map<String, Long> changes = new HashMap<>();
+        counters.forEach((category, counter) -> {
+            final long count = counter.sum();
+            final Long previous = published.put(category, count);
+            if (previous == null || previous != count) {
+                changes.put(category, count);
+            }
+        });
+        final List<String> removed = new ArrayList<>();
+        published.keySet().removeIf(category -> {
+            final boolean isRemoved = !counters.containsKey(category);
+            if (isRemoved) {
+                removed.add(category);
+            }
+            return isRemoved;
+        });
+        if (changes.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            removed.forEach(category -> {
+                pendingChanges.remove(category);
+                pendingRemoved.add(category);
+            });
+            pendingRemoved.removeAll(changes.keySet());
+            pendingChanges.putAll(changes);
+        }
+        if (isApplyScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::apply);
+        }
+    }
+
+    private void apply() {
+        final Map<String, Long> changes;
+        final Set<String> removed;
+        synchronized (lock) {
+            isApplyScheduled.set(false);
+            changes = pendingChanges;
+            removed = pendingRemoved;
+            pendingChanges = new HashMap<>();
+            pendingRemoved = new HashSet<>();
+        }
+        updater.update(Collections.unmodifiableMap(changes), removed);
+    }
+}
@@ -19,33 +19,142 @@
 package fx.utils.chart;
 
 
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static java.util.Objects.nonNull;
+
+/**
+ * Composite customizer of the chart.
+ * Listeners of all customizers are released as soon as the chart is removed from its scene
+ * and registered again when the chart is shown once more, so discarded charts are not retained by shared data
+ */
 public final class ChartCustomizer implements Customizer {
     private final Logger logger = Logger.getLogger(ChartCustomizer.class.getName());
+    private final Node chart;
     private final Collection<Customizer> customizers;
+    private final ColorCache colorCache;
+    private final ChangeListener<Scene> sceneListener = (observable, oldScene, newScene) -> sceneChanged(oldScene, newScene);
+    private ChartMetrics metrics = ChartMetrics.DISABLED;
+    private boolean isCustomized;
+    private boolean isSuspended;
 
-    ChartCustomizer(Collection<Customizer> customizers) {
+    ChartCustomizer(Node chart, ColorCache colorCache, Collection<Customizer> customizers) {
+        this.chart = chart;
+        this.colorCache = colorCache;
         this.customizers = new ArrayList<>(customizers);
     }
 
-    ChartCustomizer(Customizer... customizers) {
-        this(Arrays.asList(customizers));
+    ChartCustomizer(Node chart, ColorCache colorCache, Customizer... customizers) {
+        this(chart, colorCache, Arrays.asList(customizers));
+    }
+
+    /**
+     * Constructs customizer of charts without colors, so there are no colors to invalidate
+     */
+    ChartCustomizer(Node chart, Customizer... customizers) {
+        this(chart, null, Arrays.asList(customizers));
+    }
+
+    /**
+     * Collects metrics of this chart. It has to be called before customization
+     *
+     * @param metrics metrics, which may be shared by several charts
+     * @return this customizer
+     */
+    public ChartCustomizer withMetrics(ChartMetrics metrics) {
+        this.metrics = metrics;
+        customizers.forEach(customizer -> {
+            if (customizer instanceof InstrumentedCustomizer)
+                ((InstrumentedCustomizer) customizer).setMetrics(metrics);
+        });
+        return this;
     }
 
     public void customize() {
+        if (!isCustomized) {
+            isCustomized = true;
+            chart.sceneProperty().addListener(sceneListener);
+        }
+        isSuspended = false;
         customizers.forEach(this::doCustomize);
     }
 
+    @Override
+    public void refreshColors() {
+        customizers.forEach(Customizer::refreshColors);
+    }
+
+    /**
+     * Releases all listeners of the chart. Unlike automatic release on scene removal,
+     * the chart isn't customized again when it's added to a scene
+     */
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            chart.sceneProperty().removeListener(sceneListener);
+        }
+        isSuspended = false;
+        customizers.forEach(this::doDispose);
+    }
+
+    /**
+     * Drops memoized color of the name and applies actual colors to the chart
+     *
+     * @param name data name
+     */
+    public void invalidateColor(String name) {
+        if (nonNull(colorCache))
+            colorCache.invalidate(name);
+        refreshColors();
+    }
+
+    /**
+     * Drops all memoized colors and applies actual colors to the chart
+     */
+    public void invalidateColors() {
+        if (nonNull(colorCache))
+            colorCache.invalidateAll();
+        refreshColors();
+    }
+
+    private void sceneChanged(Scene oldScene, Scene newScene) {
+        if (nonNull(oldScene) && newScene == null) {
+            isSuspended = true;
+            customizers.forEach(this::doDispose);
+        } else if (nonNull(newScene) && isSuspended) {
+            isSuspended = false;
+            customizers.forEach(this::doCustomize);
+        }
+    }
+
     private void doCustomize(Customizer customizer) {
+        final long startTime = metrics.isEnabled() ? System.nanoTime() : 0;
         try {
             customizer.customize();
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "", e);
+            metrics.failed();
+            logger.log(Level.SEVERE, "Chart customization failed in " + customizer.getClass().getSimpleName(), e);
+        } finally {
+            if (metrics.isEnabled())
+                metrics.customized(customizer.getClass().getSimpleName(), System.nanoTime() - startTime);
+        }
+    }
+
+    private void doDispose(Customizer customizer) {
+        try {
+            customizer.dispose();
+        } catch (Exception e) {
+            metrics.failed();
+            logger.log(Level.SEVERE, "Chart customizer disposal failed in " + customizer.getClass().getSimpleName(), e);
         }
     }
 
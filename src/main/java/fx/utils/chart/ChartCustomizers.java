@@ -18,16 +18,25 @@
 
 package fx.utils.chart;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.scene.chart.AreaChart;
 import javafx.scene.chart.BarChart;
+import javafx.scene.chart.Chart;
+import javafx.scene.chart.LineChart;
 import javafx.scene.chart.PieChart;
+import javafx.scene.chart.ScatterChart;
+import javafx.scene.chart.StackedBarChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.paint.Color;
 
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.function.Function;
 
 /**
  * Simple utility class.
  * This class helps to customize colors of chart pies and bars with legend according to names.
+ * Line, area, scatter and stacked bar charts are colored according to series names.
  * <br/>
  * Usage:
  * <pre><code>
@@ -41,6 +50,10 @@ import java.util.function.Function;
  *     ChartCustomizers.forPieChart(chart, name -> colorMapping.getOrDefault(name, Color.BLACK)).customize();
  *
  * </code></pre>
+ * Colors are memoized per name, so the supplier is called once per name until colors are invalidated
+ * through {@link ChartCustomizer#invalidateColors()}.
+ * Listeners are released automatically when the chart is removed from its scene,
+ * {@link ChartCustomizer#dispose()} releases them for good.
  */
 public final class ChartCustomizers {
     private ChartCustomizers() {
@@ -53,9 +66,24 @@ public final class ChartCustomizers {
      * @param colorByNameSupplier color supplier according to data name
      * @return instance of customizer
      */
-    public static Customizer forBarChart(BarChart<String, ?> barChart, Function<String, Optional<Color>> colorByNameSupplier) {
-        return new ChartCustomizer(new DefaultChartLegendCustomizer(barChart, colorByNameSupplier),
-                new DefaultBarCustomizer(barChart, colorByNameSupplier));
+    public static ChartCustomizer forBarChart(BarChart<String, ?> barChart, Function<String, Optional<Color>> colorByNameSupplier) {
+        final ColorCache colorCache = ColorCache.of(colorByNameSupplier);
+        return new ChartCustomizer(barChart, colorCache, new DefaultChartLegendCustomizer(barChart, colorCache),
+                new DefaultBarCustomizer(barChart, colorCache));
+    }
+
+    /**
+     * Constructs customizer for bar chart which applies colors of added data once per pulse.
+     * It suits charts with large or frequently replaced series
+     *
+     * @param barChart            instance of bar Chart
+     * @param colorByNameSupplier color supplier according to data name
+     * @return instance of customizer
+     */
+    public static ChartCustomizer forBarChartBatched(BarChart<String, ?> barChart, Function<String, Optional<Color>> colorByNameSupplier) {
+        final ColorCache colorCache = ColorCache.of(colorByNameSupplier);
+        return new ChartCustomizer(barChart, colorCache, new DefaultChartLegendCustomizer(barChart, colorCache),
+                new BatchedBarCustomizer(barChart, colorCache));
     }
 
     /**
@@ -65,8 +93,161 @@ public final class ChartCustomizers {
      * @param colorByNameSupplier color supplier according to data name
      * @return instance of customizer
      */
-    public static Customizer forPieChart(PieChart chart, Function<String, Optional<Color>> colorByNameSupplier) {
-        return new ChartCustomizer(new DefaultChartLegendCustomizer(chart, colorByNameSupplier),
-                new DefaultPieCustomizer(chart, colorByNameSupplier));
+    public static ChartCustomizer forPieChart(PieChart chart, Function<String, Optional<Color>> colorByNameSupplier) {
+        final ColorCache colorCache = ColorCache.of(colorByNameSupplier);
+        return new ChartCustomizer(chart, colorCache, new DefaultChartLegendCustomizer(chart, colorCache),
+                new DefaultPieCustomizer(chart, colorCache));
+    }
+
+    /**
+     * Constructs customizer for line chart. Series lines and symbols are colored according to series name
+     *
+     * @param chart               instance of line chart
+     * @param colorByNameSupplier color supplier according to series name
+     * @param <X>                 type of X values
+     * @param <Y>                 type of Y values
+     * @return instance of customizer
+     */
+    public static <X, Y> ChartCustomizer forLineChart(LineChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier) {
+        return forLineChart(chart, colorByNameSupplier, DefaultSeriesCustomizer.NO_SYMBOL_THRESHOLD);
+    }
+
+    /**
+     * Constructs customizer for line chart which hides symbols while any series is larger than threshold
+     *
+     * @param chart               instance of line chart
+     * @param colorByNameSupplier color supplier according to series name
+     * @param symbolThreshold     maximal series size for which symbols are shown
+     * @param <X>                 type of X values
+     * @param <Y>                 type of Y values
+     * @return instance of customizer
+     */
+    public static <X, Y> ChartCustomizer forLineChart(LineChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier,
+                                                      int symbolThreshold) {
+        return forSeries(chart, colorByNameSupplier, DefaultSeriesCustomizer.SeriesStyle.LINE,
+                chart.createSymbolsProperty(), symbolThreshold);
+    }
+
+    /**
+     * Constructs customizer for area chart. Series areas, lines and symbols are colored according to series name
+     *
+     * @param chart               instance of area chart
+     * @param colorByNameSupplier color supplier according to series name
+     * @param <X>                 type of X values
+     * @param <Y>                 type of Y values
+     * @return instance of customizer
+     */
+    public static <X, Y> ChartCustomizer forAreaChart(AreaChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier) {
+        return forAreaChart(chart, colorByNameSupplier, DefaultSeriesCustomizer.NO_SYMBOL_THRESHOLD);
+    }
+
+    /**
+     * Constructs customizer for area chart which hides symbols while any series is larger than threshold
+     *
+     * @param chart               instance of area chart
+     * @param colorByNameSupplier color supplier according to series name
+     * @param symbolThreshold     maximal series size for which symbols are shown
+     * @param <X>                 type of X values
+     * @param <Y>                 type of Y values
+     * @return instance of customizer
+     */
+    public static <X, Y> ChartCustomizer forAreaChart(AreaChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier,
+                                                      int symbolThreshold) {
+        return forSeries(chart, colorByNameSupplier, DefaultSeriesCustomizer.SeriesStyle.AREA,
+                chart.createSymbolsProperty(), symbolThreshold);
+    }
+
+    /**
+     * Constructs customizer for scatter chart. Points are colored according to series name
+     *
+     * @param chart               instance of scatter chart
+     * @param colorByNameSupplier color supplier according to series name
+     * @param <X>                 type of X values
+     * @param <Y>                 type of Y values
+     * @return instance of customizer
+     */
+    public static <X, Y> ChartCustomizer forScatterChart(ScatterChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier) {
+        return forSeries(chart, colorByNameSupplier, DefaultSeriesCustomizer.SeriesStyle.POINT,
+                null, DefaultSeriesCustomizer.NO_SYMBOL_THRESHOLD);
+    }
+
+    /**
+     * Constructs customizer for stacked bar chart. Bars are colored according to series name
+     *
+     * @param chart               instance of stacked bar chart
+     * @param colorByNameSupplier color supplier according to series name
+     * @param <X>                 type of X values
+     * @param <Y>                 type of Y values
+     * @return instance of customizer
+     */
+    public static <X, Y> ChartCustomizer forStackedBarChart(StackedBarChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier) {
+        return forSeries(chart, colorByNameSupplier, DefaultSeriesCustomizer.SeriesStyle.POINT,
+                null, DefaultSeriesCustomizer.NO_SYMBOL_THRESHOLD);
+    }
+
+    /**
+     * Constructs customizer which shows full resolution series on chart downsampled to pixel width of the plot.
+     * Series are added to the chart by the customizer
+     *
+     * @param chart  instance of line or area chart
+     * @param series full resolution series
+     * @return instance of customizer
+     */
+    public static Customizer forDownsampling(XYChart<Number, Number> chart, DownsampledSeries... series) {
+        return new ChartCustomizer(chart, new DownsamplingCustomizer(chart, Arrays.asList(series)));
+    }
+
+    /**
+     * Constructs customizer of streaming chart. X axis shows the latest time window of ring buffer series
+     *
+     * @param chart      instance of line, area or scatter chart
+     * @param timeWindow width of shown X range, not positive value keeps X axis untouched
+     * @param series     ring buffer series
+     * @return instance of customizer
+     */
+    public static Customizer forRealTime(XYChart<Number, Number> chart, double timeWindow, RingBufferSeries... series) {
+        return new ChartCustomizer(chart, new RealTimeCustomizer(chart, timeWindow, Arrays.asList(series)));
+    }
+
+    /**
+     * Constructs customizer which switches chart animation off while data is updated faster than animations complete
+     * or pulses are delayed, and switches it on again when updates calm down below once a second.
+     * See {@link #forAdaptiveAnimation(Chart, double)} for how updates are detected
+     *
+     * @param chart instance of chart
+     * @return instance of customizer
+     */
+    public static Customizer forAdaptiveAnimation(Chart chart) {
+        return forAdaptiveAnimation(chart, AdaptiveAnimationCustomizer.DEFAULT_MAX_UPDATE_RATE);
+    }
+
+    /**
+     * Constructs customizer which switches chart animation off while data is updated faster than animations complete
+     * or pulses are delayed, and switches it on again when updates calm down.
+     * <br/>
+     * Updates are not observed per data item, they are inferred from layout requests of the chart. Any layout request
+     * counts as an update, so resizing the chart or changing its styles counts as well.
+     * While animation is on, running animations request layout on every pulse, so the update rate can't be measured.
+     * Animation is switched off when layout is requested in almost every pulse of a second, i.e. animations
+     * never complete before the next update. While animation is off, pulses with layout requests are counted
+     * against the rate, animation stays off above the rate and is switched on again below half of the rate.
+     *
+     * @param chart         instance of chart
+     * @param maxUpdateRate count of updated pulses per second above which switched off animation stays off,
+     *                      it's switched on again after two seconds below half of the rate.
+     *                      It isn't used to switch animation off, see above
+     * @return instance of customizer
+     */
+    public static Customizer forAdaptiveAnimation(Chart chart, double maxUpdateRate) {
+        return new ChartCustomizer(chart, new AdaptiveAnimationCustomizer(chart, maxUpdateRate,
+                AdaptiveAnimationCustomizer.DEFAULT_MAX_PULSE_INTERVAL));
+    }
+
+    private static <X, Y> ChartCustomizer forSeries(XYChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier,
+                                                    DefaultSeriesCustomizer.SeriesStyle seriesStyle,
+                                                    BooleanProperty createSymbols, int symbolThreshold) {
+        final ColorCache colorCache = ColorCache.of(colorByNameSupplier);
+        return new ChartCustomizer(chart, colorCache, new DefaultChartLegendCustomizer(chart, colorCache),
+                new DefaultSeriesCustomizer<>(chart, colorCache, seriesStyle, createSymbols, symbolThreshold));
     }
 }
@@ -0,0 +1,255 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.chart;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.chart.Chart;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Renderer of charts to PNG files without showing them in a window.
+ * Charts are built, customized and snapshotted one by one on FX application thread in an offscreen scene
+ * with a reused image buffer, while PNG encoding of previous charts runs on worker threads.
+ * Count of pixel buffers waiting for encoding is limited. When encoders fall behind, the calling thread waits
+ * for a free buffer before the chart is posted to FX application thread, which itself never waits.
+ * JavaFX toolkit has to be started before rendering.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     try (ChartImageRenderer renderer = ChartImageRenderer.withSize(800, 600)) {
+ *         final List&lt;CompletableFuture&lt;Path&gt;&gt; images = reports.stream()
+ *                 .map(report -&gt; renderer.render(() -&gt; createChart(report),
+ *                         chart -&gt; ChartCustomizers.forBarChart(chart, colorByName),
+ *                         directory.resolve(report.getName() + ".png")))
+ *                 .collect(Collectors.toList());
+ *         CompletableFuture.allOf(images.toArray(new CompletableFuture[0])).join();
+ *     }
+ *
+ * </code></pre>
+ */
+public final class ChartImageRenderer implements AutoCloseable {
+    private static final String FORMAT = "png";
+    private static final int BUFFERS_PER_ENCODER = 2;
+    private final int width;
+    private final int height;
+    private final StackPane root = new StackPane();
+    private final Queue<int[]> pixelBuffers = new ConcurrentLinkedQueue<>();
+    private final Semaphore availableBuffers;
+    private final ThreadLocal<BufferedImage> encoderImages;
+    private final ExecutorService encoders;
+    // waits for buffers on behalf of FX application thread when render is called from it
+    private final ExecutorService bufferWaiter = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "chart-image-buffer-waiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Scene scene;
+    private WritableImage image;
+
+    private ChartImageRenderer(int width, int height, int encoderThreads) {
+        this.width = width;
+        this.height = height;
+        this.availableBuffers = new Semaphore(encoderThreads * BUFFERS_PER_ENCODER);
+        this.encoderImages = ThreadLocal.withInitial(() -> new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.encoders = Executors.newFixedThreadPool(encoderThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "chart-image-encoder-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Constructs renderer with encoder thread per available processor
+     *
+     * @param width  image width
+     * @param height image height
+     * @return instance of renderer
+     */
+    public static ChartImageRenderer withSize(int width, int height) {
+        return withSize(width, height, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param width          image width
+     * @param height         image height
+     * @param encoderThreads count of threads encoding images
+     * @return instance of renderer
+     */
+    public static ChartImageRenderer withSize(int width, int height, int encoderThreads) {
+        return new ChartImageRenderer(width, height, encoderThreads);
+    }
+
+    /**
+     * Adds stylesheet to the offscreen scene. It has to be called before the first rendering
+     *
+     * @param stylesheet url of stylesheet
+     * @return this renderer
+     */
+    public ChartImageRenderer withStylesheet(String stylesheet) {
+        root.getStylesheets().add(stylesheet);
+        return this;
+    }
+
+    /**
+     * Renders chart to PNG file. It may be called from any thread.
+     * It blocks the calling thread while all pixel buffers wait for encoding, except FX application thread
+     *
+     * @param chartFactory      builds chart with data, called on FX application thread
+     * @param customizerFactory builds customizer of the chart, called on FX application thread
+     * @param target            image file
+     * @param <C>               type of chart
+     * @return future completed when the file is written
+     */
+    public <C extends Chart> CompletableFuture<Path> render(Supplier<C> chartFactory,
+                                                            Function<C, ? extends Customizer> customizerFactory,
+                                                            Path target) {
+        final CompletableFuture<Path> result = new CompletableFuture<>();
+        final Runnable post = () -> {
+            try {
+                Platform.runLater(() -> renderWithBuffer(chartFactory, customizerFactory, target, result));
+            } catch (Exception e) {
+                availableBuffers.release();
+                result.completeExceptionally(e);
+            }
+        };
+        if (!Platform.isFxApplicationThread()) {
+            availableBuffers.acquireUninterruptibly();
+            post.run();
+        } else if (availableBuffers.tryAcquire()) {
+            post.run();
+        } else {
+            try {
+                bufferWaiter.execute(() -> {
+                    availableBuffers.acquireUninterruptibly();
+                    post.run();
+                });
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Releases encoder threads once already submitted images are written. It doesn't wait for them
+     */
+    @Override
+    public void close() {
+        bufferWaiter.shutdown();
+        encoders.shutdown();
+    }
+
+    /**
+     * Snapshots chart into a pixel buffer, which permit is already taken, and passes it to encoders
+     */
+    private <C extends Chart> void renderWithBuffer(Supplier<C> chartFactory,
+                                                    Function<C, ? extends Customizer> customizerFactory,
+                                                    Path target, CompletableFuture<Path> result) {
+        final int[] pixels;
+        try {
+            pixels = snapshot(chartFactory, customizerFactory);
+        } catch (Exception e) {
+            availableBuffers.release();
+            result.completeExceptionally(e);
+            return;
+        }
+        try {
+            encoders.execute(() -> encode(pixels, target, result));
+        } catch (RejectedExecutionException e) {
+            releaseBuffer(pixels);
+            result.completeExceptionally(e);
+        }
+    }
+
+    private <C extends Chart> int[] snapshot(Supplier<C> chartFactory, Function<C, ? extends Customizer> customizerFactory) {
+        if (scene == null) {
+            scene = new Scene(root, width, height);
+            image = new WritableImage(width, height);
+        }
+        final C chart = chartFactory.get();
+        chart.setAnimated(false);
+        root.getChildren().setAll(chart);
+        Customizer customizer = null;
+        try {
+            customizer = customizerFactory.apply(chart);
+            customizer.customize();
+            root.applyCss();
+            root.layout();
+            chart.snapshot(null, image);
+        } finally {
+            if (customizer != null) {
+                customizer.dispose();
+            }
+            root.getChildren().clear();
+        }
+        int[] pixels = pixelBuffers.poll();
+        if (pixels == null) {
+            pixels = new int[width * height];
+        }
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        return pixels;
+    }
+
+    private void encode(int[] pixels, Path target, CompletableFuture<Path> result) {
+        final BufferedImage bufferedImage = encoderImages.get();
+        try {
+            // both buffers hold non premultiplied ARGB, so pixels are copied as is
+            System.arraycopy(pixels, 0, ((DataBufferInt) bufferedImage.getRaster().getDataBuffer()).getData(), 0, pixels.length);
+        } finally {
+            releaseBuffer(pixels);
+        }
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            if (ImageIO.write(bufferedImage, FORMAT, outputStream)) {
+                result.complete(target);
+            } else {
+                result.completeExceptionally(new IOException("No " + FORMAT + " writer is available"));
+            }
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void releaseBuffer(int[] pixels) {
+        pixelBuffers.offer(pixels);
+        availableBuffers.release();
+    }
+}
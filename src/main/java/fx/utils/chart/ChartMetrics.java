@@ -0,0 +1,193 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package fx.utils.chart;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics collected by chart customizers. One instance may be shared by several charts.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final ChartMetrics metrics = new ChartMetrics().register("sales");
+ *     ChartCustomizers.forBarChart(barChart, colorByName).withMetrics(metrics).customize();
+ *
+ * </code></pre>
+ */
+public final class ChartMetrics implements ChartMetricsMXBean {
+    static final ChartMetrics DISABLED = new ChartMetrics(false);
+    private static final String DOMAIN = "fx.utils.chart";
+    private final boolean isEnabled;
+    private final LongAdder nodesStyled = new LongAdder();
+    private final LongAdder listenerRegistrations = new LongAdder();
+    private final LongAdder customizations = new LongAdder();
+    private final LongAdder customizeTime = new LongAdder();
+    private final Map<String, LongAdder> customizeTimeByCustomizer = new ConcurrentHashMap<>();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchTime = new LongAdder();
+    private final LongAccumulator maxBatchTime = new LongAccumulator(Math::max, 0);
+    private final LongAdder errors = new LongAdder();
+    private ObjectName objectName;
+
+    public ChartMetrics() {
+        this(true);
+    }
+
+    private ChartMetrics(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+    }
+
+    /**
+     * Registers metrics in platform MBean server
+     *
+     * @param name name of chart or group of charts
+     * @return this metrics
+     */
+    public synchronized ChartMetrics register(String name) {
+        unregister();
+        try {
+            final ObjectName objectName = new ObjectName(DOMAIN, "name", ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            this.objectName = objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Chart metrics can't be registered with name " + name, e);
+        }
+        return this;
+    }
+
+    /**
+     * Removes metrics from platform MBean server
+     */
+    public synchronized void unregister() {
+        if (objectName != null) {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                if (server.isRegistered(objectName))
+                    server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                throw new IllegalStateException("Chart metrics can't be unregistered " + objectName, e);
+            } finally {
+                objectName = null;
+            }
+        }
+    }
+
+    @Override
+    public long getNodesStyled() {
+        return nodesStyled.sum();
+    }
+
+    @Override
+    public long getListenerRegistrations() {
+        return listenerRegistrations.sum();
+    }
+
+    @Override
+    public long getCustomizations() {
+        return customizations.sum();
+    }
+
+    @Override
+    public long getCustomizeTime() {
+        return customizeTime.sum();
+    }
+
+    @Override
+    public Map<String, Long> getCustomizeTimeByCustomizer() {
+        final Map<String, Long> result = new TreeMap<>();
+        customizeTimeByCustomizer.forEach((name, time) -> result.put(name, time.sum()));
+        return result;
+    }
+
+    @Override
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    @Override
+    public long getBatchTime() {
+        return batchTime.sum();
+    }
+
+    @Override
+    public long getMaxBatchTime() {
+        return maxBatchTime.get();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public void reset() {
+        nodesStyled.reset();
+        listenerRegistrations.reset();
+        customizations.reset();
+        customizeTime.reset();
+        customizeTimeByCustomizer.clear();
+        batches.reset();
+        batchTime.reset();
+        maxBatchTime.reset();
+        errors.reset();
+    }
+
+    boolean isEnabled() {
+        return isEnabled;
+    }
+
+    void nodeStyled() {
+        if (isEnabled)
+            nodesStyled.increment();
+    }
+
+    void listenerRegistered() {
+        if (isEnabled)
+            listenerRegistrations.increment();
+    }
+
+    void customized(String customizer, long time) {
+        if (isEnabled) {
+            customizations.increment();
+            customizeTime.add(time);
+            customizeTimeByCustomizer.computeIfAbsent(customizer, key -> new LongAdder()).add(time);
+        }
+    }
+
+    void batchHandled(long time) {
+        if (isEnabled) {
+            batches.increment();
+            batchTime.add(time);
+            maxBatchTime.accumulate(time);
+        }
+    }
+
+    void failed() {
+        if (isEnabled)
+            errors.increment();
+    }
+}
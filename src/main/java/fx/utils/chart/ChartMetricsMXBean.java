@@ -0,0 +1,76 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package fx.utils.chart;
+
+import java.util.Map;
+
+/**
+ * Metrics of chart customizers, exposed through JMX by {@link ChartMetrics#register(String)}.
+ * Times are in nanoseconds
+ */
+public interface ChartMetricsMXBean {
+    /**
+     * @return count of nodes whose style was actually changed
+     */
+    long getNodesStyled();
+
+    /**
+     * @return count of listeners registered by customizers
+     */
+    long getListenerRegistrations();
+
+    /**
+     * @return count of customizer runs
+     */
+    long getCustomizations();
+
+    /**
+     * @return total time of customizer runs
+     */
+    long getCustomizeTime();
+
+    /**
+     * @return total time of customizer runs by customizer name
+     */
+    Map<String, Long> getCustomizeTimeByCustomizer();
+
+    /**
+     * @return count of handled data changes
+     */
+    long getBatches();
+
+    /**
+     * @return total time of handled data changes
+     */
+    long getBatchTime();
+
+    /**
+     * @return the longest handling of data change
+     */
+    long getMaxBatchTime();
+
+    /**
+     * @return count of failed customizer runs
+     */
+    long getErrors();
+
+    /**
+     * Sets all metrics to zero
+     */
+    void reset();
+}
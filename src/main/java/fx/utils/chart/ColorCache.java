@@ -0,0 +1,64 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Memoizing wrapper of color supplier. Color of every name is looked up once until it is invalidated.
+ * It has to be used from FX application thread only
+ */
+final class ColorCache implements Function<String, Optional<Color>> {
+    private final Map<String, Optional<Color>> colors = new HashMap<>();
+    private final Function<String, Optional<Color>> colorByNameSupplier;
+
+    private ColorCache(Function<String, Optional<Color>> colorByNameSupplier) {
+        this.colorByNameSupplier = colorByNameSupplier;
+    }
+
+    static ColorCache of(Function<String, Optional<Color>> colorByNameSupplier) {
+        return colorByNameSupplier instanceof ColorCache
+                ? (ColorCache) colorByNameSupplier
+                : new ColorCache(colorByNameSupplier);
+    }
+
+    @Override
+    public Optional<Color> apply(String name) {
+        Optional<Color> color = colors.get(name);
+        if (color == null) {
+            color = colorByNameSupplier.apply(name);
+            colors.put(name, color);
+        }
+        return color;
+    }
+
+    void invalidate(String name) {
+        colors.remove(name);
+    }
+
+    void invalidateAll() {
+        colors.clear();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.scene.paint.Color;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of node style strings per color, so recoloring of nodes does not format styles again
+ */
+final class ColorStyles {
+    private static final int MAX_SIZE = 1024;
+    private static final double AREA_OPACITY = 0.15;
+    private static final Map<Color, String> BACKGROUND_STYLES = new ConcurrentHashMap<>();
+    private static final Map<Color, String> STROKE_STYLES = new ConcurrentHashMap<>();
+    private static final Map<Color, String> AREA_STYLES = new ConcurrentHashMap<>();
+    private static final Map<Color, String> SYMBOL_STYLES = new ConcurrentHashMap<>();
+
+    private ColorStyles() {
+    }
+
+    static String backgroundStyle(Color color) {
+        return style(BACKGROUND_STYLES, color, key -> String.format("-fx-background-color: %s;", rgb(key)));
+    }
+
+    /**
+     * @return style of series line path
+     */
+    static String strokeStyle(Color color) {
+        return style(STROKE_STYLES, color, key -> String.format("-fx-stroke: %s;", rgb(key)));
+    }
+
+    /**
+     * @return style of translucent series area path
+     */
+    static String areaStyle(Color color) {
+        return style(AREA_STYLES, color, key -> String.format(Locale.ROOT, "-fx-fill: RGBA(%d,%d,%d,%.2f);",
+                (int) (key.getRed() * 255),
+                (int) (key.getGreen() * 255),
+                (int) (key.getBlue() * 255),
+                AREA_OPACITY));
+    }
+
+    /**
+     * @return style of line symbol, which is a colored ring with white center
+     */
+    static String symbolStyle(Color color) {
+        return style(SYMBOL_STYLES, color, key -> String.format("-fx-background-color: %s, white;", rgb(key)));
+    }
+
+    private static String style(Map<Color, String> styles, Color color, Function<Color, String> formatter) {
+        final String style = styles.get(color);
+        if (style != null) {
+            return style;
+        }
+        if (styles.size() >= MAX_SIZE) {
+            styles.clear();
+        }
+        return styles.computeIfAbsent(color, formatter);
+    }
+
+    private static String rgb(Color color) {
+        return String.format("RGB(%d,%d,%d)",
+                (int) (color.getRed() * 255),
+                (int) (color.getGreen() * 255),
+                (int) (color.getBlue() * 255));
+    }
+}
@@ -24,10 +24,21 @@ import javafx.scene.paint.Color;
 public interface Customizer {
     void customize();
 
+    /**
+     * Applies colors to already customized nodes again, e.g. after colors are invalidated
+     */
+    default void refreshColors() {
+    }
+
+    /**
+     * Removes all listeners registered by {@link #customize()}. Customizer may be customized again afterwards
+     */
+    default void dispose() {
+    }
+
     default void setNodeColor(Color color, Node node) {
-        node.setStyle(String.format("-fx-background-color: RGB(%d,%d,%d);",
-                (int) (color.getRed() * 255),
-                (int) (color.getGreen() * 255),
-                (int) (color.getBlue() * 255)));
+        final String style = ColorStyles.backgroundStyle(color);
+        if (!style.equals(node.getStyle()))
+            node.setStyle(style);
     }
 }
@@ -19,25 +19,46 @@
 package fx.utils.chart;
 
 
+import javafx.beans.property.ReadOnlyProperty;
 import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
 import javafx.scene.Node;
 import javafx.scene.chart.BarChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.paint.Color;
 
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import static java.util.Objects.nonNull;
 
-class DefaultBarCustomizer implements Customizer {
+class DefaultBarCustomizer extends InstrumentedCustomizer {
     private final BarChart<String, ?> barChart;
     private final Function<String, Optional<Color>> colorByNameSupplier;
-    private final Map<XYChart.Series<String, ?>, ListChangeListener<XYChart.Data<String, ?>>> seriesListenerMap = new ConcurrentHashMap<>();
-    private final Map<XYChart.Data<String, ?>, ChangeListener<Node>> dataChangeListenerMap = new ConcurrentHashMap<>();
+    private final ListChangeListener<XYChart.Series<String, ?>> seriesListener = c -> {
+        handleBatch(() -> {
+            while (c.next()) {
+                c.getRemoved().forEach(this::seriesRemoved);
+                c.getAddedSubList().forEach(this::seriesAdded);
+            }
+        });
+    };
+    private final ListChangeListener<XYChart.Data<String, ?>> dataListener = change -> {
+        handleBatch(() -> {
+            while (change.next()) {
+                change.getAddedSubList().forEach(this::updateColor);
+                change.getRemoved().forEach(this::dataRemoved);
+            }
+        });
+    };
+    // shared by all data waiting for node creation, data is taken from the bean of node property
+    private final ChangeListener<Node> nodeListener = this::nodeChanged;
+    private final WeakListChangeListener<XYChart.Series<String, ?>> weakSeriesListener = new WeakListChangeListener<>(seriesListener);
+    private final WeakListChangeListener<XYChart.Data<String, ?>> weakDataListener = new WeakListChangeListener<>(dataListener);
+    private final WeakChangeListener<Node> weakNodeListener = new WeakChangeListener<>(nodeListener);
     private boolean isCustomized;
 
     DefaultBarCustomizer(BarChart<String, ?> barChart, Function<String, Optional<Color>> colorByNameSupplier) {
@@ -48,55 +69,60 @@ class DefaultBarCustomizer implements Customizer {
     public void customize() {
         if (!isCustomized) {
             isCustomized = true;
-            barChart.getData().addListener((ListChangeListener<XYChart.Series<String, ?>>) c -> {
-                while (c.next()) {
-                    c.getRemoved().forEach(this::seriesRemoved);
-                    c.getAddedSubList().forEach(this::seriesAdded);
-                }
-            });
+            barChart.getData().addListener(weakSeriesListener);
+            listenerRegistered();
             barChart.getData().forEach(this::seriesAdded);
         }
     }
 
+    @Override
+    public void refreshColors() {
+        if (isCustomized)
+            barChart.getData().forEach(series -> series.getData().forEach(this::updateColor));
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            barChart.getData().removeListener(weakSeriesListener);
+            barChart.getData().forEach(this::seriesRemoved);
+        }
+    }
+
     private void seriesAdded(XYChart.Series<String, ?> stringSeries) {
-        final ListChangeListener<XYChart.Data<String, ?>> listener = change -> {
-            while (change.next()) {
-                change.getAddedSubList().forEach(this::updateColor);
-                change.getRemoved().forEach(this::dataRemoved);
-            }
-        };
         stringSeries.getData().forEach(this::updateColor);
-        stringSeries.getData().addListener(listener);
-        seriesListenerMap.put(stringSeries, listener);
+        stringSeries.getData().addListener(weakDataListener);
+        listenerRegistered();
     }
 
     private void dataRemoved(XYChart.Data<String, ?> data) {
-        clearDataListener(data);
+        data.nodeProperty().removeListener(weakNodeListener);
     }
 
     private void seriesRemoved(XYChart.Series<String, ?> stringSeries) {
-        final ListChangeListener<XYChart.Data<String, ?>> listener = seriesListenerMap.remove(stringSeries);
-        stringSeries.getData().removeListener(listener);
+        stringSeries.getData().removeListener(weakDataListener);
+        stringSeries.getData().forEach(this::dataRemoved);
     }
 
     private void updateColor(XYChart.Data<String, ?> data) {
-        colorByNameSupplier.apply(data.getXValue()).ifPresent(color -> {
-            if (nonNull(data.getNode()))
-                setNodeColor(color, data.getNode());
-            else {
-                final ChangeListener<Node> nodeChangeListener = (observable, oldValue, newValue) -> {
-                    if (nonNull(newValue)) setNodeColor(color, newValue);
-                };
-                clearDataListener(data);
-                data.nodeProperty().addListener(nodeChangeListener);
-                dataChangeListenerMap.put(data, nodeChangeListener);
-            }
-        });
+        if (nonNull(data.getNode())) {
+            colorByNameSupplier.apply(data.getXValue()).ifPresent(color -> setNodeColor(color, data.getNode()));
+        } else {
+            data.nodeProperty().removeListener(weakNodeListener);
+            data.nodeProperty().addListener(weakNodeListener);
+            listenerRegistered();
+        }
     }
 
-    private void clearDataListener(XYChart.Data<String, ?> data) {
-        final ChangeListener<Node> listener = dataChangeListenerMap.remove(data);
-        if (nonNull(listener))
-            data.nodeProperty().removeListener(listener);
+    private void nodeChanged(ObservableValue<? extends Node> observable, Node oldNode, Node newNode) {
+        if (nonNull(newNode)) {
+            observable.removeListener(weakNodeListener);
+            final Object bean = ((ReadOnlyProperty<?>) observable).getBean();
+            if (bean instanceof XYChart.Data) {
+                @SuppressWarnings("unchecked") final XYChart.Data<String, ?> data = (XYChart.Data<String, ?>) bean;
+                updateColor(data);
+            }
+        }
     }
 }
@@ -19,24 +19,43 @@
 package fx.utils.chart;
 
 import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
 import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.chart.Chart;
 import javafx.scene.control.Label;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
-import static java.util.Objects.nonNull;
-
-class DefaultChartLegendCustomizer implements Customizer {
+class DefaultChartLegendCustomizer extends InstrumentedCustomizer {
     public static final String LEGEND_STYLE_CLASS = ".chart-legend";
-    private final Map<Label, ListChangeListener<Node>> changeListenerMap = new HashMap<>();
+    private final Set<Label> labels = new HashSet<>();
     private final Chart chart;
     private final Function<String, Optional<Color>> colorByNameSupplier;
+    private final ListChangeListener<Node> legendListener = c -> {
+        handleBatch(() -> {
+            while (c.next()) {
+                c.getRemoved().forEach(this::legendChildRemoved);
+                c.getAddedSubList().forEach(this::legendChildAdded);
+            }
+        });
+    };
+    // shared by all legend labels, label is the parent of added graphic
+    private final ListChangeListener<Node> labelListener = c -> {
+        handleBatch(() -> {
+            while (c.next()) {
+                c.getAddedSubList().forEach(this::labelChildAdded);
+            }
+        });
+    };
+    private final WeakListChangeListener<Node> weakLegendListener = new WeakListChangeListener<>(legendListener);
+    private final WeakListChangeListener<Node> weakLabelListener = new WeakListChangeListener<>(labelListener);
+    private Region legend;
     private boolean isCustomized;
 
     DefaultChartLegendCustomizer(Chart chart, Function<String, Optional<Color>> colorByNameSupplier) {
@@ -47,33 +66,51 @@ class DefaultChartLegendCustomizer implements Customizer {
     public void customize() {
         if (!isCustomized) {
             isCustomized = true;
-            final Node legend = chart.lookup(LEGEND_STYLE_CLASS);
-            if (legend instanceof Region) {
-                final Region region = (Region) legend;
-                region.getChildrenUnmodifiable().addListener((ListChangeListener<Node>) c -> {
-                    while (c.next()) {
-                        c.getRemoved().forEach(this::legendChildRemoved);
-                        c.getAddedSubList().forEach(this::legendChildAdded);
-                    }
-                });
-                region.getChildrenUnmodifiable().forEach(this::legendChildAdded);
+            final Node node = chart.lookup(LEGEND_STYLE_CLASS);
+            if (node instanceof Region) {
+                legend = (Region) node;
+                legend.getChildrenUnmodifiable().addListener(weakLegendListener);
+                listenerRegistered();
+                legend.getChildrenUnmodifiable().forEach(this::legendChildAdded);
+            }
+        }
+    }
+
+    @Override
+    public void refreshColors() {
+        labels.forEach(label -> getColor(label.getText())
+                .ifPresent(color -> label.getChildrenUnmodifiable().forEach(node -> setNodeColor(color, node))));
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            if (legend != null) {
+                legend.getChildrenUnmodifiable().removeListener(weakLegendListener);
+                legend = null;
             }
+            labels.forEach(label -> label.getChildrenUnmodifiable().removeListener(weakLabelListener));
+            labels.clear();
         }
     }
 
     private void legendChildAdded(Node node) {
         if (node instanceof Label) {
             final Label label = (Label) node;
-            final Optional<Color> color = getColor(label.getText());
-            final ListChangeListener<Node> listener = c1 -> {
-                while (c1.next())
-                    c1.getAddedSubList().forEach(node1 -> color.ifPresent(cl -> setNodeColor(cl, node1)));
-            };
-            label.getChildrenUnmodifiable().addListener(listener);
-            changeListenerMap.put(label, listener);
+            if (labels.add(label)) {
+                label.getChildrenUnmodifiable().addListener(weakLabelListener);
+                listenerRegistered();
+            }
         }
     }
 
+    private void labelChildAdded(Node node) {
+        final Parent parent = node.getParent();
+        if (parent instanceof Label)
+            getColor(((Label) parent).getText()).ifPresent(color -> setNodeColor(color, node));
+    }
+
     private Optional<Color> getColor(String text) {
         return colorByNameSupplier.apply(text);
     }
@@ -81,9 +118,8 @@ class DefaultChartLegendCustomizer implements Customizer {
     private void legendChildRemoved(Node node) {
         if (node instanceof Label) {
             final Label label = (Label) node;
-            final ListChangeListener<Node> listener = changeListenerMap.remove(label);
-            if (nonNull(listener))
-                label.getChildrenUnmodifiable().removeListener(listener);
+            if (labels.remove(label))
+                label.getChildrenUnmodifiable().removeListener(weakLabelListener);
         }
     }
 
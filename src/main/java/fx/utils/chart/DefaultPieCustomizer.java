@@ -18,7 +18,13 @@
 
 package fx.utils.chart;
 
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
 import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
+import javafx.scene.Node;
 import javafx.scene.chart.PieChart;
 import javafx.scene.paint.Color;
 
@@ -27,9 +33,21 @@ import java.util.function.Function;
 
 import static java.util.Objects.nonNull;
 
-class DefaultPieCustomizer implements Customizer {
+class DefaultPieCustomizer extends InstrumentedCustomizer {
     private final PieChart pieChart;
     private final Function<String, Optional<Color>> colorByNameSupplier;
+    // shared by all data waiting for node creation, data is taken from the bean of node property
+    private final ChangeListener<Node> nodeListener = this::nodeChanged;
+    private final ListChangeListener<PieChart.Data> dataListener = c -> {
+        handleBatch(() -> {
+            while (c.next()) {
+                c.getRemoved().forEach(this::dataRemoved);
+                c.getAddedSubList().forEach(this::dataAdded);
+            }
+        });
+    };
+    private final WeakChangeListener<Node> weakNodeListener = new WeakChangeListener<>(nodeListener);
+    private final WeakListChangeListener<PieChart.Data> weakDataListener = new WeakListChangeListener<>(dataListener);
     private boolean isCustomized;
 
     DefaultPieCustomizer(PieChart pieChart, Function<String, Optional<Color>> colorByNameSupplier) {
@@ -41,18 +59,47 @@ class DefaultPieCustomizer implements Customizer {
     public void customize() {
         if (!isCustomized) {
             isCustomized = true;
-            pieChart.getData().addListener((ListChangeListener<PieChart.Data>) c -> {
-                while (c.next())
-                    c.getAddedSubList().forEach(this::dataAdded);
-            });
+            pieChart.getData().addListener(weakDataListener);
+            listenerRegistered();
+            pieChart.getData().forEach(this::dataAdded);
+        }
+    }
+
+    @Override
+    public void refreshColors() {
+        if (isCustomized)
             pieChart.getData().forEach(this::dataAdded);
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            pieChart.getData().removeListener(weakDataListener);
+            pieChart.getData().forEach(this::dataRemoved);
         }
     }
 
+    private void dataRemoved(PieChart.Data data) {
+        data.nodeProperty().removeListener(weakNodeListener);
+    }
+
     private void dataAdded(PieChart.Data data) {
-        colorByNameSupplier.apply(data.getName()).ifPresent(color -> {
-            if (nonNull(data.getNode()))
-                setNodeColor(color, data.getNode());
-        });
+        if (nonNull(data.getNode())) {
+            colorByNameSupplier.apply(data.getName()).ifPresent(color -> setNodeColor(color, data.getNode()));
+        } else {
+            data.nodeProperty().removeListener(weakNodeListener);
+            data.nodeProperty().addListener(weakNodeListener);
+            listenerRegistered();
+        }
+    }
+
+    private void nodeChanged(ObservableValue<? extends Node> observable, Node oldNode, Node newNode) {
+        if (nonNull(newNode)) {
+            observable.removeListener(weakNodeListener);
+            final Object bean = ((ReadOnlyProperty<?>) observable).getBean();
+            if (bean instanceof PieChart.Data)
+                dataAdded((PieChart.Data) bean);
+        }
     }
 }
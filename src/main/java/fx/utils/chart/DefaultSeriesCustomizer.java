@@ -0,0 +1,312 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.chart;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.WeakListChangeListener;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.chart.XYChart;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Customizer of XY chart which colors series according to series names.
+ * Line and area paths are styled once per series, data nodes (symbols, scatter points, stacked bars) are styled
+ * as soon as they are created. Symbols of line and area charts are turned off while any series is larger than
+ * symbol threshold and turned on again when all series are small enough
+ *
+ * @param <X> type of X values
+ * @param <Y> type of Y values
+ */
+class DefaultSeriesCustomizer<X, Y> extends InstrumentedCustomizer {
+    static final int NO_SYMBOL_THRESHOLD = Integer.MAX_VALUE;
+    private final XYChart<X, Y> chart;
+    private final Function<String, Optional<Color>> colorByNameSupplier;
+    private final SeriesStyle seriesStyle;
+    private final BooleanProperty createSymbols;
+    private final int symbolThreshold;
+    private final Map<XYChart.Series<X, Y>, SeriesListeners> seriesListeners = new HashMap<>();
+    private final ListChangeListener<XYChart.Series<X, Y>> seriesListener = c -> {
+        handleBatch(() -> {
+            while (c.next()) {
+                c.getRemoved().forEach(this::seriesRemoved);
+                c.getAddedSubList().forEach(this::seriesAdded);
+            }
+            updateSymbols();
+        });
+    };
+    private final InvalidationListener symbolsListener = observable -> symbolsChanged();
+    private final WeakListChangeListener<XYChart.Series<X, Y>> weakSeriesListener = new WeakListChangeListener<>(seriesListener);
+    private final WeakInvalidationListener weakSymbolsListener = new WeakInvalidationListener(symbolsListener);
+    private boolean isCustomized;
+    private boolean isSymbolsRequested;
+
+    /**
+     * @param chart               customized chart
+     * @param colorByNameSupplier color supplier according to series name
+     * @param seriesStyle         the way series nodes are styled
+     * @param createSymbols       create symbols property of line or area chart, null for other charts
+     * @param symbolThreshold     maximal series size for which symbols are shown
+     */
+    DefaultSeriesCustomizer(XYChart<X, Y> chart, Function<String, Optional<Color>> colorByNameSupplier,
+                            SeriesStyle seriesStyle, BooleanProperty createSymbols, int symbolThreshold) {
+        this.chart = chart;
+        this.colorByNameSupplier = colorByNameSupplier;
+        this.seriesStyle = seriesStyle;
+        this.createSymbols = createSymbols;
+        this.symbolThreshold = symbolThreshold;
+    }
+
+    @Override
+    public void customize() {
+        if (!isCustomized) {
+            isCustomized = true;
+            if (nonNull(createSymbols)) {
+                isSymbolsRequested = createSymbols.get();
+                createSymbols.addListener(weakSymbolsListener);
+                listenerRegistered();
+            }
+            chart.getData().addListener(weakSeriesListener);
+            listenerRegistered();
+            chart.getData().forEach(this::seriesAdded);
+            updateSymbols();
+        }
+    }
+
+    @Override
+    public void refreshColors() {
+        if (isCustomized)
+            seriesListeners.values().forEach(SeriesListeners::applyColor);
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            chart.getData().removeListener(weakSeriesListener);
+            if (nonNull(createSymbols))
+                createSymbols.removeListener(weakSymbolsListener);
+            new ArrayList<>(seriesListeners.keySet()).forEach(this::seriesRemoved);
+        }
+    }
+
+    private void seriesAdded(XYChart.Series<X, Y> series) {
+        if (!seriesListeners.containsKey(series)) {
+            final SeriesListeners listeners = new SeriesListeners(series);
+            seriesListeners.put(series, listeners);
+            listeners.register();
+            listeners.applyColor();
+        }
+    }
+
+    private void seriesRemoved(XYChart.Series<X, Y> series) {
+        final SeriesListeners listeners = seriesListeners.remove(series);
+        if (nonNull(listeners))
+            listeners.unregister();
+    }
+
+    private boolean isDataStyled() {
+        return createSymbols == null || createSymbols.get();
+    }
+
+    /**
+     * Create symbols property is changed by user, the new value is the requested one
+     */
+    private void symbolsChanged() {
+        isSymbolsRequested = createSymbols.get();
+        updateSymbols();
+        refreshColors();
+    }
+
+    private void updateSymbols() {
+        if (createSymbols == null || symbolThreshold == NO_SYMBOL_THRESHOLD)
+            return;
+        int maxSize = 0;
+        for (XYChart.Series<X, Y> series : chart.getData())
+            maxSize = Math.max(maxSize, series.getData().size());
+        final boolean isShown = isSymbolsRequested && maxSize <= symbolThreshold;
+        if (createSymbols.get() != isShown) {
+            // keep requested value, it's changed by threshold only
+            createSymbols.removeListener(weakSymbolsListener);
+            createSymbols.set(isShown);
+            createSymbols.addListener(weakSymbolsListener);
+            if (isShown)
+                refreshColors();
+        }
+    }
+
+    private Optional<Color> getColor(XYChart.Series<X, Y> series) {
+        return series.getName() == null ? Optional.empty() : colorByNameSupplier.apply(series.getName());
+    }
+
+    /**
+     * Listeners of a single series. Series color is looked up on every node creation, so listeners are shared
+     * by all data of the series
+     */
+    private final class SeriesListeners {
+        private final XYChart.Series<X, Y> series;
+        private final ListChangeListener<XYChart.Data<X, Y>> dataListener = c -> {
+            handleBatch(() -> {
+                boolean isResized = false;
+                while (c.next()) {
+                    c.getRemoved().forEach(this::dataRemoved);
+                    if (isDataStyled())
+                        getColor(getSeries()).ifPresent(color -> c.getAddedSubList().forEach(data -> applyColor(data, color)));
+                    isResized |= c.wasAdded() || c.wasRemoved();
+                }
+                if (isResized)
+                    updateSymbols();
+            });
+        };
+        private final ChangeListener<Node> seriesNodeListener = (observable, oldNode, newNode) -> {
+            if (nonNull(newNode))
+                getColor(getSeries()).ifPresent(color -> seriesStyle.styleSeries(DefaultSeriesCustomizer.this, newNode, color));
+        };
+        private final ChangeListener<Node> dataNodeListener = this::dataNodeChanged;
+        private final WeakListChangeListener<XYChart.Data<X, Y>> weakDataListener = new WeakListChangeListener<>(dataListener);
+        private final WeakChangeListener<Node> weakSeriesNodeListener = new WeakChangeListener<>(seriesNodeListener);
+        private final WeakChangeListener<Node> weakDataNodeListener = new WeakChangeListener<>(dataNodeListener);
+
+        private SeriesListeners(XYChart.Series<X, Y> series) {
+            this.series = series;
+        }
+
+        private XYChart.Series<X, Y> getSeries() {
+            return series;
+        }
+
+        private void register() {
+            series.nodeProperty().addListener(weakSeriesNodeListener);
+            listenerRegistered();
+            series.getData().addListener(weakDataListener);
+            listenerRegistered();
+        }
+
+        private void unregister() {
+            series.nodeProperty().removeListener(weakSeriesNodeListener);
+            series.getData().removeListener(weakDataListener);
+            series.getData().forEach(this::dataRemoved);
+        }
+
+        private void applyColor() {
+            getColor(series).ifPresent(color -> {
+                if (nonNull(series.getNode()))
+                    seriesStyle.styleSeries(DefaultSeriesCustomizer.this, series.getNode(), color);
+                if (isDataStyled())
+                    series.getData().forEach(data -> applyColor(data, color));
+            });
+        }
+
+        private void applyColor(XYChart.Data<X, Y> data, Color color) {
+            if (nonNull(data.getNode())) {
+                seriesStyle.styleData(DefaultSeriesCustomizer.this, data.getNode(), color);
+            } else {
+                data.nodeProperty().removeListener(weakDataNodeListener);
+                data.nodeProperty().addListener(weakDataNodeListener);
+                listenerRegistered();
+            }
+        }
+
+        private void dataRemoved(XYChart.Data<X, Y> data) {
+            data.nodeProperty().removeListener(weakDataNodeListener);
+        }
+
+        private void dataNodeChanged(ObservableValue<? extends Node> observable, Node oldNode, Node newNode) {
+            if (nonNull(newNode)) {
+                observable.removeListener(weakDataNodeListener);
+                getColor(series).ifPresent(color -> seriesStyle.styleData(DefaultSeriesCustomizer.this, newNode, color));
+            }
+        }
+    }
+
+    /**
+     * The way nodes of series are styled by chart type
+     */
+    enum SeriesStyle {
+        /**
+         * Series line path is stroked, symbols are colored rings
+         */
+        LINE {
+            @Override
+            void styleSeries(InstrumentedCustomizer customizer, Node node, Color color) {
+                customizer.setNodeStyle(node, ColorStyles.strokeStyle(color));
+            }
+
+            @Override
+            void styleData(InstrumentedCustomizer customizer, Node node, Color color) {
+                customizer.setNodeStyle(node, ColorStyles.symbolStyle(color));
+            }
+        },
+        /**
+         * Series group consists of translucent fill path and stroked line path, symbols are colored rings
+         */
+        AREA {
+            @Override
+            void styleSeries(InstrumentedCustomizer customizer, Node node, Color color) {
+                if (node instanceof Group) {
+                    for (Node child : ((Group) node).getChildren()) {
+                        if (child.getStyleClass().contains(AREA_FILL_STYLE_CLASS))
+                            customizer.setNodeStyle(child, ColorStyles.areaStyle(color));
+                        else if (child.getStyleClass().contains(AREA_LINE_STYLE_CLASS))
+                            customizer.setNodeStyle(child, ColorStyles.strokeStyle(color));
+                    }
+                }
+            }
+
+            @Override
+            void styleData(InstrumentedCustomizer customizer, Node node, Color color) {
+                customizer.setNodeStyle(node, ColorStyles.symbolStyle(color));
+            }
+        },
+        /**
+         * Series has no own node, every data node is filled (scatter points, stacked bars)
+         */
+        POINT {
+            @Override
+            void styleSeries(InstrumentedCustomizer customizer, Node node, Color color) {
+            }
+
+            @Override
+            void styleData(InstrumentedCustomizer customizer, Node node, Color color) {
+                customizer.setNodeStyle(node, ColorStyles.backgroundStyle(color));
+            }
+        };
+
+        private static final String AREA_FILL_STYLE_CLASS = "chart-series-area-fill";
+        private static final String AREA_LINE_STYLE_CLASS = "chart-series-area-line";
+
+        abstract void styleSeries(InstrumentedCustomizer customizer, Node node, Color color);
+
+        abstract void styleData(InstrumentedCustomizer customizer, Node node, Color color);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Full resolution data of a series which is shown on a chart downsampled.
+ * Points are kept in primitive arrays off chart, the chart gets only selected points through {@link #getSeries()}.
+ * X values have to be appended in ascending order. It has to be used from FX application thread only
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final DownsampledSeries latency = new DownsampledSeries("latency");
+ *     ChartCustomizers.forDownsampling(lineChart, latency).customize();
+ *     ...
+ *     latency.add(timestamp, value);
+ *
+ * </code></pre>
+ */
+public final class DownsampledSeries {
+    private static final int INITIAL_CAPACITY = 1024;
+    private final XYChart.Series<Number, Number> series = new XYChart.Series<>();
+    private final LttbSelection selection = new LttbSelection();
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private int size;
+    private Runnable onChanged;
+
+    public DownsampledSeries(String name) {
+        series.setName(name);
+    }
+
+    public void add(double x, double y) {
+        ensureCapacity(size + 1);
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+        changed();
+    }
+
+    public void addAll(double[] newXs, double[] newYs) {
+        final int count = Math.min(newXs.length, newYs.length);
+        ensureCapacity(size + count);
+        System.arraycopy(newXs, 0, xs, size, count);
+        System.arraycopy(newYs, 0, ys, size, count);
+        size += count;
+        changed();
+    }
+
+    public void clear() {
+        size = 0;
+        selection.reset();
+        changed();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    public double getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * @return series shown on chart
+     */
+    public XYChart.Series<Number, Number> getSeries() {
+        return series;
+    }
+
+    void setOnChanged(Runnable onChanged) {
+        this.onChanged = onChanged;
+    }
+
+    /**
+     * @param x x value
+     * @return index of the first point with x value not less than given one
+     */
+    int indexOf(double x) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (xs[middle] < x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Shows selected points of range [from, to). Data items of the series are reused, so only changed points
+     * are touched and no data nodes are recreated
+     */
+    void refresh(int from, int to, int threshold) {
+        final ObservableList<XYChart.Data<Number, Number>> data = series.getData();
+        if (to - from < 1) {
+            selection.reset();
+            data.clear();
+            return;
+        }
+        final int firstChanged = selection.update(xs, ys, from, to, Math.max(3, threshold));
+        final int selected = selection.size();
+        for (int position = Math.min(firstChanged, data.size()); position < Math.min(selected, data.size()); position++) {
+            final int index = selection.get(position);
+            final XYChart.Data<Number, Number> item = data.get(position);
+            if (item.getXValue().doubleValue() != xs[index]) {
+                item.setXValue(xs[index]);
+            }
+            if (item.getYValue().doubleValue() != ys[index]) {
+                item.setYValue(ys[index]);
+            }
+        }
+        if (data.size() > selected) {
+            data.remove(selected, data.size());
+        } else if (data.size() < selected) {
+            final List<XYChart.Data<Number, Number>> added = new ArrayList<>(selected - data.size());
+            for (int position = data.size(); position < selected; position++) {
+                final int index = selection.get(position);
+                added.add(new XYChart.Data<>(xs[index], ys[index]));
+            }
+            data.addAll(added);
+        }
+    }
+
+    private void changed() {
+        if (onChanged != null) {
+            onChanged.run();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (xs.length < capacity) {
+            final int newCapacity = Math.max(capacity, xs.length * 2);
+            xs = Arrays.copyOf(xs, newCapacity);
+            ys = Arrays.copyOf(ys, newCapacity);
+        }
+    }
+}
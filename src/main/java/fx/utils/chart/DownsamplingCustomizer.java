@@ -0,0 +1,116 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.ValueAxis;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Customizer which feeds XY chart with downsampled views of full resolution series.
+ * Count of shown points is bound to pixel width of the plot. Views are recomputed at most once per pulse
+ * on append, on resize of the plot and on change of X axis bounds (zoom)
+ */
+class DownsamplingCustomizer implements Customizer {
+    private static final int DEFAULT_THRESHOLD = 1000;
+    private final XYChart<Number, Number> chart;
+    private final List<DownsampledSeries> downsampledSeries;
+    private final InvalidationListener axisListener;
+    private final InvalidationListener boundsListener;
+    private boolean isCustomized;
+    private boolean isUpdateScheduled;
+
+    DownsamplingCustomizer(XYChart<Number, Number> chart, Collection<DownsampledSeries> downsampledSeries) {
+        this.chart = chart;
+        this.downsampledSeries = new ArrayList<>(downsampledSeries);
+        this.axisListener = observable -> scheduleUpdate();
+        this.boundsListener = observable -> {
+            if (!chart.getXAxis().isAutoRanging())
+                scheduleUpdate();
+        };
+    }
+
+    @Override
+    public void customize() {
+        if (!isCustomized) {
+            isCustomized = true;
+            final Axis<Number> xAxis = chart.getXAxis();
+            xAxis.widthProperty().addListener(axisListener);
+            if (xAxis instanceof ValueAxis) {
+                final ValueAxis<Number> valueAxis = (ValueAxis<Number>) xAxis;
+                valueAxis.lowerBoundProperty().addListener(boundsListener);
+                valueAxis.upperBoundProperty().addListener(boundsListener);
+                valueAxis.autoRangingProperty().addListener(axisListener);
+            }
+            downsampledSeries.forEach(series -> {
+                series.setOnChanged(this::scheduleUpdate);
+                if (!chart.getData().contains(series.getSeries()))
+                    chart.getData().add(series.getSeries());
+            });
+            update();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            final Axis<Number> xAxis = chart.getXAxis();
+            xAxis.widthProperty().removeListener(axisListener);
+            if (xAxis instanceof ValueAxis) {
+                final ValueAxis<Number> valueAxis = (ValueAxis<Number>) xAxis;
+                valueAxis.lowerBoundProperty().removeListener(boundsListener);
+                valueAxis.upperBoundProperty().removeListener(boundsListener);
+                valueAxis.autoRangingProperty().removeListener(axisListener);
+            }
+            downsampledSeries.forEach(series -> series.setOnChanged(null));
+        }
+    }
+
+    private void scheduleUpdate() {
+        if (!isUpdateScheduled) {
+            isUpdateScheduled = true;
+            Platform.runLater(this::update);
+        }
+    }
+
+    private void update() {
+        isUpdateScheduled = false;
+        final Axis<Number> xAxis = chart.getXAxis();
+        final int threshold = xAxis.getWidth() > 0 ? (int) xAxis.getWidth() : DEFAULT_THRESHOLD;
+        for (DownsampledSeries series : downsampledSeries) {
+            int from = 0;
+            int to = series.size();
+            if (xAxis instanceof ValueAxis && !xAxis.isAutoRanging()) {
+                final ValueAxis<Number> valueAxis = (ValueAxis<Number>) xAxis;
+                // one point beyond each bound keeps the line continuous up to plot edges
+                from = Math.max(0, series.indexOf(valueAxis.getLowerBound()) - 1);
+                to = Math.min(series.size(), series.indexOf(valueAxis.getUpperBound()) + 1);
+            }
+            series.refresh(from, to, threshold);
+        }
+    }
+}
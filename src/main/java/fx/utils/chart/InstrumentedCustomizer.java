@@ -0,0 +1,65 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package fx.utils.chart;
+
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+
+/**
+ * Base of coloring customizers which report their work to {@link ChartMetrics}
+ */
+abstract class InstrumentedCustomizer implements Customizer {
+    private ChartMetrics metrics = ChartMetrics.DISABLED;
+
+    void setMetrics(ChartMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setNodeColor(Color color, Node node) {
+        setNodeStyle(node, ColorStyles.backgroundStyle(color));
+    }
+
+    void setNodeStyle(Node node, String style) {
+        if (!style.equals(node.getStyle())) {
+            node.setStyle(style);
+            metrics.nodeStyled();
+        }
+    }
+
+    void listenerRegistered() {
+        metrics.listenerRegistered();
+    }
+
+    /**
+     * Handles a batch of data changes. Handling time is measured only when metrics are enabled,
+     * failed batches are counted as errors and the failure is passed on
+     */
+    void handleBatch(Runnable batch) {
+        final long startTime = metrics.isEnabled() ? System.nanoTime() : 0;
+        try {
+            batch.run();
+        } catch (RuntimeException e) {
+            metrics.failed();
+            throw e;
+        } finally {
+            if (startTime != 0)
+                metrics.batchHandled(System.nanoTime() - startTime);
+        }
+    }
+}
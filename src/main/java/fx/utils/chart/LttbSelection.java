@@ -0,0 +1,138 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets selection of points of a single series.
+ * Bucket size is rounded up to a power of two, so bucket bounds do not move while points are appended
+ * and only the last buckets are selected again after an append
+ */
+final class LttbSelection {
+    private int[] selected = new int[16];
+    private int size;
+    private int from = -1;
+    private int to;
+    private int bucketSize;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param position position in selection
+     * @return index of selected point
+     */
+    int get(int position) {
+        return selected[position];
+    }
+
+    void reset() {
+        from = -1;
+        size = 0;
+    }
+
+    /**
+     * Selects points of range [from, to)
+     *
+     * @param xs        x values in ascending order
+     * @param ys        y values
+     * @param from      first index of visible range
+     * @param to        index after the last one of visible range
+     * @param threshold max count of selected points, at least 3
+     * @return first position of selection which may have changed
+     */
+    int update(double[] xs, double[] ys, int from, int to, int threshold) {
+        final int count = to - from;
+        if (count <= threshold) {
+            final int firstChanged = from == this.from && bucketSize == 0 ? Math.min(size, count) : 0;
+            ensureCapacity(count);
+            for (int position = firstChanged; position < count; position++) {
+                selected[position] = from + position;
+            }
+            remember(from, to, 0, count);
+            return firstChanged;
+        }
+        final int newBucketSize = bucketSize(count, threshold);
+        final int interiorStart = from + 1;
+        final int interiorEnd = to - 1;
+        int firstBucket = 0;
+        if (from == this.from && newBucketSize == bucketSize && to >= this.to) {
+            // buckets followed by a complete bucket are not affected by appended points
+            final int completeBuckets = (this.to - 1 - interiorStart) / bucketSize;
+            firstBucket = Math.max(0, completeBuckets - 1);
+        }
+        final int buckets = (interiorEnd - interiorStart + newBucketSize - 1) / newBucketSize;
+        ensureCapacity(buckets + 2);
+        selected[0] = from;
+        for (int bucket = firstBucket; bucket < buckets; bucket++) {
+            final int bucketStart = interiorStart + bucket * newBucketSize;
+            final int bucketEnd = Math.min(bucketStart + newBucketSize, interiorEnd);
+            final int nextEnd = Math.min(bucketEnd + newBucketSize, interiorEnd);
+            double nextX = xs[to - 1];
+            double nextY = ys[to - 1];
+            if (bucketEnd < interiorEnd) {
+                nextX = 0;
+                nextY = 0;
+                for (int index = bucketEnd; index < nextEnd; index++) {
+                    nextX += xs[index];
+                    nextY += ys[index];
+                }
+                nextX /= nextEnd - bucketEnd;
+                nextY /= nextEnd - bucketEnd;
+            }
+            final double previousX = xs[selected[bucket]];
+            final double previousY = ys[selected[bucket]];
+            double maxArea = -1;
+            int maxIndex = bucketStart;
+            for (int index = bucketStart; index < bucketEnd; index++) {
+                final double area = Math.abs((previousX - nextX) * (ys[index] - previousY)
+                        - (previousX - xs[index]) * (nextY - previousY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = index;
+                }
+            }
+            selected[bucket + 1] = maxIndex;
+        }
+        selected[buckets + 1] = to - 1;
+        remember(from, to, newBucketSize, buckets + 2);
+        return firstBucket + 1;
+    }
+
+    private void remember(int from, int to, int bucketSize, int size) {
+        this.from = from;
+        this.to = to;
+        this.bucketSize = bucketSize;
+        this.size = size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (selected.length < capacity) {
+            selected = Arrays.copyOf(selected, Math.max(capacity, selected.length * 2));
+        }
+    }
+
+    private static int bucketSize(int count, int threshold) {
+        final int needed = (count - 2 + threshold - 3) / (threshold - 2);
+        return needed <= 1 ? 1 : Integer.highestOneBit(needed - 1) << 1;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.chart.PieChart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Utility which updates pie chart in place from snapshots keyed by slice name.
+ * Values of existing slices are changed in place, so slices keep their nodes, labels and colors.
+ * Slices smaller than the threshold share of total may be merged into a single "Other" slice.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final PieChartUpdater updater = PieChartUpdater.forChart(pieChart).withOtherSlice("Other", 0.02);
+ *     ...
+ *     updater.update(trafficByCountry);
+ *
+ * </code></pre>
+ */
+public final class PieChartUpdater {
+    private final Map<String, PieChart.Data> dataByName = new HashMap<>();
+    private final PieChart chart;
+    private String otherName;
+    private double otherThreshold;
+
+    private PieChartUpdater(PieChart chart) {
+        this.chart = chart;
+        chart.getData().forEach(this::dataAdded);
+        chart.getData().addListener((ListChangeListener<PieChart.Data>) c -> {
+            while (c.next()) {
+                c.getRemoved().forEach(this::dataRemoved);
+                c.getAddedSubList().forEach(this::dataAdded);
+            }
+        });
+    }
+
+    public static PieChartUpdater forChart(PieChart chart) {
+        return new PieChartUpdater(chart);
+    }
+
+    /**
+     * Merges small slices into a single slice
+     *
+     * @param name      name of merged slice
+     * @param threshold share of total below which slices are merged, e.g. 0.02
+     * @return this updater
+     */
+    public PieChartUpdater withOtherSlice(String name, double threshold) {
+        this.otherName = name;
+        this.otherThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Makes chart equal to the snapshot. Slices missing in the snapshot are removed,
+     * new slices are appended in iteration order of the snapshot
+     *
+     * @param snapshot values by slice names
+     */
+    public void update(Map<String, ? extends Number> snapshot) {
+        final Map<String, Double> values = mergeSmallSlices(snapshot);
+        final Set<PieChart.Data> removed = new HashSet<>();
+        dataByName.forEach((name, data) -> {
+            if (!values.containsKey(name))
+                removed.add(data);
+        });
+        final List<PieChart.Data> added = new ArrayList<>();
+        values.forEach((name, value) -> {
+            final PieChart.Data data = dataByName.get(name);
+            if (data == null)
+                added.add(new PieChart.Data(name, value));
+            else if (data.getPieValue() != value)
+                data.setPieValue(value);
+        });
+        if (!removed.isEmpty())
+            chart.getData().removeAll(removed);
+        if (!added.isEmpty())
+            chart.getData().addAll(added);
+    }
+
+    private Map<String, Double> mergeSmallSlices(Map<String, ? extends Number> snapshot) {
+        final Map<String, Double> values = new LinkedHashMap<>();
+        if (otherName == null) {
+            snapshot.forEach((name, value) -> values.put(name, value.doubleValue()));
+            return values;
+        }
+        double total = 0;
+        for (Number value : snapshot.values())
+            total += value.doubleValue();
+        final double threshold = total * otherThreshold;
+        double other = 0;
+        for (Map.Entry<String, ? extends Number> entry : snapshot.entrySet()) {
+            final double value = entry.getValue().doubleValue();
+            if (value < threshold || otherName.equals(entry.getKey()))
+                other += value;
+            else
+                values.put(entry.getKey(), value);
+        }
+        if (other > 0)
+            values.put(otherName, other);
+        return values;
+    }
+
+    private void dataAdded(PieChart.Data data) {
+        dataByName.put(data.getName(), data);
+    }
+
+    private void dataRemoved(PieChart.Data data) {
+        dataByName.remove(data.getName(), data);
+    }
+}
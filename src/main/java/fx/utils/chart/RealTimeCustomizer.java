@@ -0,0 +1,84 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.ValueAxis;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Customizer of streaming chart. It adds ring buffer series to the chart and slides X axis
+ * over the time window after every applied batch of points
+ */
+class RealTimeCustomizer implements Customizer {
+    private final XYChart<Number, Number> chart;
+    private final double timeWindow;
+    private final List<RingBufferSeries> ringBufferSeries;
+    private boolean isCustomized;
+
+    RealTimeCustomizer(XYChart<Number, Number> chart, double timeWindow, Collection<RingBufferSeries> ringBufferSeries) {
+        this.chart = chart;
+        this.timeWindow = timeWindow;
+        this.ringBufferSeries = new ArrayList<>(ringBufferSeries);
+    }
+
+    @Override
+    public void customize() {
+        if (!isCustomized) {
+            isCustomized = true;
+            ringBufferSeries.forEach(series -> {
+                series.setOnDrained(this::slideWindow);
+                if (!chart.getData().contains(series.getSeries()))
+                    chart.getData().add(series.getSeries());
+            });
+            slideWindow();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (isCustomized) {
+            isCustomized = false;
+            ringBufferSeries.forEach(series -> series.setOnDrained(null));
+        }
+    }
+
+    private void slideWindow() {
+        final Axis<Number> xAxis = chart.getXAxis();
+        if (!(xAxis instanceof ValueAxis) || timeWindow <= 0)
+            return;
+        double latestX = Double.NaN;
+        for (RingBufferSeries series : ringBufferSeries) {
+            final double seriesLatestX = series.getLatestX();
+            if (!Double.isNaN(seriesLatestX) && (Double.isNaN(latestX) || seriesLatestX > latestX))
+                latestX = seriesLatestX;
+        }
+        if (!Double.isNaN(latestX)) {
+            final ValueAxis<Number> valueAxis = (ValueAxis<Number>) xAxis;
+            valueAxis.setAutoRanging(false);
+            valueAxis.setLowerBound(latestX - timeWindow);
+            valueAxis.setUpperBound(latestX);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fixed capacity series for streaming charts.
+ * Points may be added from any thread, they are collected in a primitive ring buffer and applied to the chart
+ * once per pulse. When the series is full, data items of the oldest points are reused for the newest ones,
+ * so neither the list of data is shifted nor data nodes are recreated and colors of nodes survive.
+ * Charts have to draw lines sorted by X values, e.g. line chart with default axis sorting policy.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final RingBufferSeries cpu = new RingBufferSeries("cpu", 600);
+ *     ChartCustomizers.forRealTime(lineChart, 60_000, cpu).customize();
+ *     ...
+ *     cpu.add(System.currentTimeMillis(), load);
+ *
+ * </code></pre>
+ */
+public final class RingBufferSeries {
+    private final XYChart.Series<Number, Number> series = new XYChart.Series<>();
+    private final AtomicBoolean isDrainScheduled = new AtomicBoolean();
+    private final Object lock = new Object();
+    private final int capacity;
+    private final double[] pendingXs;
+    private final double[] pendingYs;
+    private final double[] drainedXs;
+    private final double[] drainedYs;
+    private int pendingStart;
+    private int pendingCount;
+    private int cursor;
+    private double latestX = Double.NaN;
+    private Runnable onDrained;
+
+    /**
+     * @param name     name of series
+     * @param capacity maximal count of shown points, it has to be positive
+     */
+    public RingBufferSeries(String name, int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity has to be positive: " + capacity);
+        this.capacity = capacity;
+        this.pendingXs = new double[capacity];
+        this.pendingYs = new double[capacity];
+        this.drainedXs = new double[capacity];
+        this.drainedYs = new double[capacity];
+        series.setName(name);
+    }
+
+    /**
+     * Adds point. If more than capacity points are added during a pulse, the oldest of them are dropped.
+     * It may be called from any thread
+     *
+     * @param x x value, usually time
+     * @param y y value
+     */
+    public void add(double x, double y) {
+        synchronized (lock) {
+            final int index = (pendingStart + pendingCount) % capacity;
+            pendingXs[index] = x;
+            pendingYs[index] = y;
+            if (pendingCount < capacity) {
+                pendingCount++;
+            } else {
+                pendingStart = (pendingStart + 1) % capacity;
+            }
+        }
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    /**
+     * @return series shown on chart
+     */
+    public XYChart.Series<Number, Number> getSeries() {
+        return series;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return x value of the latest shown point or NaN if there is no point yet
+     */
+    public double getLatestX() {
+        return latestX;
+    }
+
+    void setOnDrained(Runnable onDrained) {
+        this.onDrained = onDrained;
+    }
+
+    private void drain() {
+        isDrainScheduled.set(false);
+        final int count;
+        synchronized (lock) {
+            count = pendingCount;
+            for (int index = 0; index < count; index++) {
+                final int pendingIndex = (pendingStart + index) % capacity;
+                drainedXs[index] = pendingXs[pendingIndex];
+                drainedYs[index] = pendingYs[pendingIndex];
+            }
+            pendingStart = 0;
+            pendingCount = 0;
+        }
+        if (count > 0) {
+            apply(count);
+            if (onDrained != null) {
+                onDrained.run();
+            }
+        }
+    }
+
+    private void apply(int count) {
+        final ObservableList<XYChart.Data<Number, Number>> data = series.getData();
+        List<XYChart.Data<Number, Number>> added = null;
+        for (int index = 0; index < count; index++) {
+            if (data.size() + (added != null ? added.size() : 0) < capacity) {
+                if (added == null) {
+                    added = new ArrayList<>(count - index);
+                }
+                added.add(new XYChart.Data<>(drainedXs[index], drainedYs[index]));
+            } else {
+                final XYChart.Data<Number, Number> item = data.get(cursor);
+                item.setXValue(drainedXs[index]);
+                item.setYValue(drainedYs[index]);
+                cursor = (cursor + 1) % capacity;
+            }
+        }
+        if (added != null) {
+            data.addAll(added);
+        }
+        latestX = drainedXs[count - 1];
+    }
+}
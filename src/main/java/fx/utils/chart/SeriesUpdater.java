@@ -0,0 +1,193 @@
+/*
+ *
+ *  * Copyright © 2020 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.chart;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Utility which updates XY chart series in place from snapshots keyed by X value.
+ * Y values of existing data are changed in place, only new keys are added and only missing keys are removed,
+ * so data nodes and their colors are kept between refreshes.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final SeriesUpdater&lt;String, Number&gt; updater = SeriesUpdater.forSeries(series);
+ *     ...
+ *     updater.update(countsByCountry);
+ *
+ * </code></pre>
+ * Series is indexed by X value, so X values of its data must not be changed outside of the updater.
+ * Positions of data are cached as well and recomputed only behind the lowest changed position of the list,
+ * so removing keys doesn't scan the whole series.
+ *
+ * @param <X> the type of X values
+ * @param <Y> the type of Y values
+ */
+public final class SeriesUpdater<X, Y> {
+    private final Map<X, Entry<X, Y>> dataByKey = new HashMap<>();
+    private final XYChart.Series<X, Y> series;
+    // cached positions of entries from this position on are outdated
+    private int staleFrom;
+
+    private SeriesUpdater(XYChart.Series<X, Y> series) {
+        this.series = series;
+        series.getData().forEach(this::dataAdded);
+        series.getData().addListener((ListChangeListener<XYChart.Data<X, Y>>) c -> {
+            while (c.next()) {
+                staleFrom = Math.min(staleFrom, c.getFrom());
+                c.getRemoved().forEach(this::dataRemoved);
+                c.getAddedSubList().forEach(this::dataAdded);
+            }
+        });
+    }
+
+    public static <X, Y> SeriesUpdater<X, Y> forSeries(XYChart.Series<X, Y> series) {
+        return new SeriesUpdater<>(series);
+    }
+
+    /**
+     * Makes series equal to the snapshot. Keys missing in the snapshot are removed from series.
+     * New keys are appended in iteration order of the snapshot
+     *
+     * @param snapshot Y values by X values
+     */
+    public void update(Map<X, ? extends Y> snapshot) {
+        final List<X> removedKeys = new ArrayList<>();
+        for (X key : dataByKey.keySet()) {
+            if (!snapshot.containsKey(key)) {
+                removedKeys.add(key);
+            }
+        }
+        update(snapshot, removedKeys);
+    }
+
+    /**
+     * Applies changes to series. Only the given keys are looked at, so changed and added values cost O(changed).
+     * Removed data is found by cached positions and removed by contiguous ranges, which costs O(removed)
+     * besides shifting and reindexing of data behind the lowest removed position.
+     * A key present in both changes and removed keys is updated and kept
+     *
+     * @param changes     new Y values by X values, both changed and added ones
+     * @param removedKeys X values to be removed unless they are changed as well
+     */
+    public void update(Map<X, ? extends Y> changes, Collection<? extends X> removedKeys) {
+        final Set<Entry<X, Y>> removed = new HashSet<>();
+        for (X key : removedKeys) {
+            final Entry<X, Y> entry = dataByKey.get(key);
+            if (entry != null && !changes.containsKey(key)) {
+                removed.add(entry);
+            }
+        }
+        final List<XYChart.Data<X, Y>> added = new ArrayList<>();
+        changes.forEach((key, value) -> {
+            final Entry<X, Y> entry = dataByKey.get(key);
+            if (entry == null) {
+                added.add(new XYChart.Data<>(key, value));
+            } else if (!Objects.equals(entry.data.getYValue(), value)) {
+                entry.data.setYValue(value);
+            }
+        });
+        if (!removed.isEmpty()) {
+            remove(removed);
+        }
+        if (!added.isEmpty()) {
+            series.getData().addAll(added);
+        }
+    }
+
+    public XYChart.Series<X, Y> getSeries() {
+        return series;
+    }
+
+    /**
+     * Removes entries from the highest position, so positions of the rest stay valid during removal
+     */
+    private void remove(Collection<Entry<X, Y>> entries) {
+        final int[] positions = new int[entries.size()];
+        int count = 0;
+        for (Entry<X, Y> entry : entries) {
+            final int position = positionOf(entry);
+            if (position >= 0) {
+                positions[count++] = position;
+            }
+        }
+        Arrays.sort(positions, 0, count);
+        int end = count;
+        while (end > 0) {
+            int start = end - 1;
+            while (start > 0 && positions[start - 1] == positions[start] - 1) {
+                start--;
+            }
+            series.getData().remove(positions[start], positions[end - 1] + 1);
+            end = start;
+        }
+    }
+
+    private int positionOf(Entry<X, Y> entry) {
+        if (entry.position < 0 || entry.position >= staleFrom) {
+            reindex();
+        }
+        return entry.position;
+    }
+
+    private void reindex() {
+        final List<XYChart.Data<X, Y>> data = series.getData();
+        for (int position = staleFrom; position < data.size(); position++) {
+            final XYChart.Data<X, Y> item = data.get(position);
+            final Entry<X, Y> entry = dataByKey.get(item.getXValue());
+            if (entry != null && entry.data == item) {
+                entry.position = position;
+            }
+        }
+        staleFrom = Integer.MAX_VALUE;
+    }
+
+    private void dataAdded(XYChart.Data<X, Y> data) {
+        dataByKey.put(data.getXValue(), new Entry<>(data));
+    }
+
+    private void dataRemoved(XYChart.Data<X, Y> data) {
+        final Entry<X, Y> entry = dataByKey.get(data.getXValue());
+        if (entry != null && entry.data == data) {
+            dataByKey.remove(data.getXValue());
+        }
+    }
+
+    private static final class Entry<X, Y> {
+        private final XYChart.Data<X, Y> data;
+        private int position = -1;
+
+        private Entry(XYChart.Data<X, Y> data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ *
+ *  * Copyright © 2022 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.controls.time;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
+import javafx.geometry.HPos;
+import javafx.geometry.VPos;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.control.SkinBase;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.stream.Stream;
+
+/**
+ * Compact skin of time input control. All fields are rendered by a single text node and the selected field
+ * is highlighted by a rectangle behind it, so the control consists of a few nodes only.
+ * Fields are found by measuring text up to field boundaries, which happens on mouse press or selection change only
+ */
+class CompactTimeInputControlSkin extends SkinBase<TimeInputControl> {
+    private static final int DAY = 0;
+    private static final int MONTH = 1;
+    private static final int YEAR = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int FRACTION = 6;
+    private static final int FIELDS_COUNT = 7;
+    private static final int[] MIN_VALUES = {1, 1, 0, 0, 0, 0, 0};
+    private static final int[] MAX_VALUES = {31, 12, 9999, 23, 59, 59, 999_999_999};
+    private static final int[] DIGITS = {2, 2, 4, 2, 2, 2, 9};
+    private static final String[] SEPARATORS = {"", ".", ".", "  ", ":", ":", "."};
+    private static final Text MEASURED_TEXT = new Text();
+    private static final long SECONDS_PER_DAY = 86_400;
+    private final Text text = new Text();
+    private final Rectangle selection = new Rectangle();
+    private final int[] values = MIN_VALUES.clone();
+    private final int[] starts = new int[FIELDS_COUNT];
+    private final StringBuilder builder = new StringBuilder();
+    private final InvalidationListener valueListener = this::valueChanged;
+    private final InvalidationListener liveListener = observable -> showLiveSecond();
+    private final InvalidationListener visibilityListener = observable -> render();
+    private final InvalidationListener focusListener = observable -> focusChanged();
+    private final EventHandler<KeyEvent> keyHandler = this::keyPressed;
+    private final EventHandler<MouseEvent> mouseHandler = this::mousePressed;
+    private long liveEpochDay = Long.MIN_VALUE;
+    private int selected = -1;
+    private int typedValue;
+    private int typedDigits;
+    private boolean isJustFocused;
+    private boolean isWriting;
+
+    CompactTimeInputControlSkin(TimeInputControl control) {
+        super(control);
+        control.getStyleClass().addAll("text-input", "time-input-control");
+        text.getStyleClass().add("time-input-control-text");
+        text.setTextOrigin(VPos.TOP);
+        text.fontProperty().bind(control.fontProperty());
+        selection.getStyleClass().add("time-input-control-selection");
+        selection.setManaged(false);
+        selection.setVisible(false);
+        getChildren().addAll(selection, text);
+
+        control.valuesObservable().addListener(valueListener);
+        control.fractionDigitsProperty().addListener(valueListener);
+        control.liveSecondObservable().addListener(liveListener);
+        visibilityProperties(control).forEach(property -> property.addListener(visibilityListener));
+        control.focusedProperty().addListener(focusListener);
+        control.addEventHandler(KeyEvent.KEY_PRESSED, keyHandler);
+        control.addEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        readValues();
+        render();
+    }
+
+    @Override
+    public void dispose() {
+        final TimeInputControl control = getSkinnable();
+        control.getStyleClass().removeAll("text-input", "time-input-control");
+        control.valuesObservable().removeListener(valueListener);
+        control.fractionDigitsProperty().removeListener(valueListener);
+        control.liveSecondObservable().removeListener(liveListener);
+        visibilityProperties(control).forEach(property -> property.removeListener(visibilityListener));
+        control.focusedProperty().removeListener(focusListener);
+        control.removeEventHandler(KeyEvent.KEY_PRESSED, keyHandler);
+        control.removeEventHandler(MouseEvent.MOUSE_PRESSED, mouseHandler);
+        text.fontProperty().unbind();
+        super.dispose();
+    }
+
+    @Override
+    protected void layoutChildren(double contentX, double contentY, double contentWidth, double contentHeight) {
+        layoutInArea(text, contentX, contentY, contentWidth, contentHeight, 0, HPos.LEFT, VPos.CENTER);
+        updateSelection();
+    }
+
+    private static Stream<Observable> visibilityProperties(TimeInputControl control) {
+        return Stream.of(control.showDateProperty(), control.showTimeProperty(), control.showSecondsProperty());
+    }
+
+    private boolean isVisible(int field) {
+        final TimeInputControl control = getSkinnable();
+        if (field <= YEAR)
+            return control.isShowDate();
+        if (field == FRACTION)
+            return control.isShowTime() && control.isShowSeconds() && control.getFractionDigits() > 0;
+        return control.isShowTime() && (field != SECOND || control.isShowSeconds());
+    }
+
+    private int digits(int field) {
+        return field == FRACTION ? getSkinnable().getFractionDigits() : DIGITS[field];
+    }
+
+    private int maxValue(int field) {
+        if (field == DAY)
+            return maxDay();
+        if (field == FRACTION)
+            return pow10(digits(FRACTION)) - 1;
+        return MAX_VALUES[field];
+    }
+
+    private void valueChanged(Observable observable) {
+        if (!isWriting) {
+            liveEpochDay = Long.MIN_VALUE;
+            readValues();
+            render();
+        }
+    }
+
+    private void readValues() {
+        final LocalDate date = getSkinnable().getDate();
+        if (date != null) {
+            values[DAY] = date.getDayOfMonth();
+            values[MONTH] = date.getMonthValue();
+            values[YEAR] = date.getYear();
+        }
+        final LocalTime time = getSkinnable().getTime();
+        if (time != null) {
+            values[HOUR] = time.getHour();
+            values[MINUTE] = time.getMinute();
+            values[SECOND] = time.getSecond();
+            values[FRACTION] = time.getNano() / pow10(9 - digits(FRACTION));
+        }
+    }
+
+    /**
+     * Shows second of live clock. Date is resolved only when the day changes
+     */
+    private void showLiveSecond() {
+        final long localSecond = getSkinnable().getLiveSecond();
+        final long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        final int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+        values[HOUR] = secondOfDay / 3600;
+        values[MINUTE] = secondOfDay / 60 % 60;
+        values[SECOND] = secondOfDay % 60;
+        values[FRACTION] = 0;
+        if (epochDay != liveEpochDay) {
+            liveEpochDay = epochDay;
+            final LocalDate date = LocalDate.ofEpochDay(epochDay);
+            values[DAY] = date.getDayOfMonth();
+            values[MONTH] = date.getMonthValue();
+            values[YEAR] = date.getYear();
+        }
+        render();
+    }
+
+    private void render() {
+        builder.setLength(0);
+        for (int field = 0; field < FIELDS_COUNT; field++) {
+            if (isVisible(field)) {
+                if (builder.length() > 0)
+                    builder.append(SEPARATORS[field]);
+                starts[field] = builder.length();
+                appendPadded(values[field], digits(field));
+            } else {
+                starts[field] = -1;
+            }
+        }
+        text.setText(builder.toString());
+        if (selected >= 0 && !isVisible(selected))
+            select(getSkinnable().isFocused() ? firstVisible() : -1);
+        else
+            updateSelection();
+    }
+
+    private void appendPadded(int value, int digits) {
+        for (int divider = pow10(digits - 1); divider > 1 && value < divider; divider /= 10)
+            builder.append('0');
+        builder.append(value);
+    }
+
+    private static int pow10(int power) {
+        int result = 1;
+        for (int i = 0; i < power; i++)
+            result *= 10;
+        return result;
+    }
+
+    private void updateSelection() {
+        if (selected < 0 || starts[selected] < 0)
+            return;
+        final String value = text.getText();
+        final double startX = measure(value.substring(0, starts[selected]));
+        final double endX = measure(value.substring(0, starts[selected] + digits(selected)));
+        final Bounds bounds = text.getLayoutBounds();
+        selection.relocate(text.getLayoutX() + startX, text.getLayoutY() + bounds.getMinY());
+        selection.setWidth(endX - startX);
+        selection.setHeight(bounds.getHeight());
+    }
+
+    private double measure(String value) {
+        if (value.isEmpty())
+            return 0;
+        final Font font = text.getFont();
+        MEASURED_TEXT.setFont(font);
+        MEASURED_TEXT.setText(value);
+        return MEASURED_TEXT.getLayoutBounds().getWidth();
+    }
+
+    private int fieldAt(double x) {
+        final String value = text.getText();
+        int nearest = -1;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int field = 0; field < FIELDS_COUNT; field++) {
+            if (starts[field] < 0)
+                continue;
+            final double startX = measure(value.substring(0, starts[field]));
+            final double endX = measure(value.substring(0, starts[field] + digits(field)));
+            if (x >= startX && x <= endX)
+                return field;
+            final double distance = Math.min(Math.abs(x - startX), Math.abs(x - endX));
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = field;
+            }
+        }
+        return nearest;
+    }
+
+    private int firstVisible() {
+        for (int field = 0; field < FIELDS_COUNT; field++) {
+            if (starts[field] >= 0)
+                return field;
+        }
+        return -1;
+    }
+
+    private void select(int field) {
+        selected = field;
+        isJustFocused = true;
+        selection.setVisible(field >= 0);
+        updateSelection();
+    }
+
+    private void selectNext() {
+        for (int field = selected + 1; field < FIELDS_COUNT; field++) {
+            if (starts[field] >= 0) {
+                select(field);
+                return;
+            }
+        }
+    }
+
+    private void selectPrevious() {
+        for (int field = selected - 1; field >= 0; field--) {
+            if (starts[field] >= 0) {
+                select(field);
+                return;
+            }
+        }
+    }
+
+    private void focusChanged() {
+        select(getSkinnable().isFocused() ? firstVisible() : -1);
+    }
+
+    private void mousePressed(MouseEvent event) {
+        final int field = fieldAt(text.sceneToLocal(event.getSceneX(), event.getSceneY()).getX());
+        getSkinnable().requestFocus();
+        if (field >= 0)
+            select(field);
+    }
+
+    private void keyPressed(KeyEvent event) {
+        if (selected < 0 || getSkinnable().isLive())
+            return;
+        final KeyCode code = event.getCode();
+        if (code.isDigitKey() && !event.getText().isEmpty()) {
+            final int digit = Character.digit(event.getText().charAt(0), 10);
+            if (digit < 0)
+                return;
+            if (isJustFocused) {
+                isJustFocused = false;
+                typedValue = digit;
+                typedDigits = 1;
+                setValue(selected, typedValue);
+            } else {
+                typedValue = typedValue * 10 + digit;
+                typedDigits++;
+                final int value = Math.min(typedValue, maxValue(selected));
+                setValue(selected, value);
+                isJustFocused = typedDigits == digits(selected);
+                if (value == typedValue && isJustFocused)
+                    selectNext();
+            }
+            event.consume();
+        } else if (code == KeyCode.UP) {
+            setValue(selected, values[selected] + 1);
+            event.consume();
+        } else if (code == KeyCode.DOWN) {
+            setValue(selected, values[selected] - 1);
+            event.consume();
+        } else if (code == KeyCode.RIGHT) {
+            selectNext();
+            event.consume();
+        } else if (code == KeyCode.LEFT) {
+            selectPrevious();
+            event.consume();
+        } else if (code == KeyCode.ENTER) {
+            getSkinnable().fireEvent(new ActionEvent());
+        }
+    }
+
+    /**
+     * Sets field value wrapping it around field range and writes date or time to the control
+     */
+    private void setValue(int field, int newValue) {
+        final int maxValue = maxValue(field);
+        final int value = newValue < MIN_VALUES[field] ? maxValue : newValue;
+        values[field] = value > maxValue ? MIN_VALUES[field] : value;
+        if (field <= YEAR) {
+            values[DAY] = Math.min(values[DAY], maxDay());
+        }
+        isWriting = true;
+        try {
+            if (field <= YEAR) {
+                getSkinnable().dateProperty().set(LocalDate.of(values[YEAR], values[MONTH], values[DAY]));
+            } else {
+                final int second = getSkinnable().isShowSeconds() ? values[SECOND] : 0;
+                getSkinnable().timeProperty().set(LocalTime.of(values[HOUR], values[MINUTE], second, nano()));
+            }
+        } finally {
+            isWriting = false;
+        }
+        render();
+    }
+
+    /**
+     * Nanoseconds of edited time. Digits beyond the shown fraction are kept from the current time
+     */
+    private int nano() {
+        final LocalTime time = getSkinnable().getTime();
+        if (!getSkinnable().isShowSeconds())
+            return 0;
+        final int digits = digits(FRACTION);
+        if (digits == 0)
+            return time == null ? 0 : time.getNano();
+        final int unit = pow10(9 - digits);
+        return values[FRACTION] * unit + (time == null ? 0 : time.getNano() % unit);
+    }
+
+    private int maxDay() {
+        return YearMonth.of(values[YEAR], values[MONTH]).lengthOfMonth();
+    }
+}
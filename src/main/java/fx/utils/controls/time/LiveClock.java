@@ -0,0 +1,58 @@
+/*
+ *
+ *  * Copyright © 2022 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package fx.utils.controls.time;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Timer of live clock. It checks wall clock on every pulse and reports local epoch second of the zone
+ * when a new second starts. Offset of the zone is cached between transitions, so a tick allocates nothing
+ */
+final class LiveClock extends AnimationTimer {
+    private static final long MILLIS_PER_SECOND = 1000;
+    private final ZoneOffsetCache offsets;
+    private final LongConsumer onSecond;
+    private long shownSecond = Long.MIN_VALUE;
+
+    /**
+     * @param offsets  offsets of the zone of shown time
+     * @param onSecond consumer of local epoch second, which is epoch second shifted by zone offset
+     */
+    LiveClock(ZoneOffsetCache offsets, LongConsumer onSecond) {
+        this.offsets = offsets;
+        this.onSecond = onSecond;
+    }
+
+    @Override
+    public void handle(long now) {
+        final long epochSecond = Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_SECOND);
+        if (epochSecond != shownSecond) {
+            shownSecond = epochSecond;
+            onSecond.accept(epochSecond + offsets.offsetOf(epochSecond).getTotalSeconds());
+        }
+    }
+
+    /**
+     * @return whether the clock has reported at least one second
+     */
+    boolean hasShownSecond() {
+        return shownSecond != Long.MIN_VALUE;
+    }
+}
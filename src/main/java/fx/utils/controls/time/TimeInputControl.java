@@ -18,8 +18,10 @@
 
 package fx.utils.controls.time;
 
-import javafx.beans.binding.Bindings;
+import javafx.beans.Observable;
+import javafx.beans.binding.ObjectBinding;
 import javafx.beans.property.*;
+import javafx.beans.value.ChangeListener;
 import javafx.css.*;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
@@ -28,14 +30,22 @@ import javafx.scene.control.Control;
 import javafx.scene.control.Skin;
 import javafx.scene.text.Font;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 public class TimeInputControl extends Control {
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final String USER_AGENT_STYLESHEET =
+            TimeInputControl.class.getResource("time-input-control.css").toExternalForm();
     private ObjectProperty<Font> font;
     private final ObjectProperty<LocalTime> time = new SimpleObjectProperty<>();
     private final ObjectProperty<LocalDate> date = new SimpleObjectProperty<>();
@@ -44,6 +54,20 @@ public class TimeInputControl extends Control {
     private final BooleanProperty showSeconds = new SimpleBooleanProperty(true);
     private final BooleanProperty showDate = new SimpleBooleanProperty(true);
     private final BooleanProperty showTime = new SimpleBooleanProperty(true);
+    // incremented once per atomic change of date and time, skins refresh their fields on it
+    private final LongProperty revision = new SimpleLongProperty();
+    private final ChangeListener<Object> valuesListener = (observableValue, oldValue, newValue) -> valuesChanged();
+    private final ReadOnlyBooleanWrapper live = new ReadOnlyBooleanWrapper(this, "live");
+    // local epoch second shown by live clock
+    private final LongProperty liveSecond = new SimpleLongProperty();
+    private final IntegerProperty fractionDigits = new SimpleIntegerProperty(0);
+    private final ObjectProperty<ZoneId> zone = new SimpleObjectProperty<>(ZoneId.systemDefault());
+    private final ReadOnlyObjectWrapper<Instant> instant = new ReadOnlyObjectWrapper<>();
+    private final ReadOnlyObjectWrapper<ZonedDateTime> zonedDateTime = new ReadOnlyObjectWrapper<>();
+    private ZoneOffsetCache offsets = new ZoneOffsetCache(ZoneId.systemDefault());
+    private LiveClock liveClock;
+    private boolean isUpdating;
+    private boolean isChanged;
 
     public TimeInputControl() {
         this(LocalDate.now(), LocalTime.now());
@@ -52,13 +76,44 @@ public class TimeInputControl extends Control {
     public TimeInputControl(LocalDate date, LocalTime time) {
         this.time.set(time);
         this.date.set(date);
-        this.getStylesheets().add(getClass().getResource("time-input-control.css").toExternalForm());
-        this.applyCss();
         this.setAccessibleRole(AccessibleRole.TEXT_FIELD);
         this.setFocusTraversable(true);
-        this.dateTime.bind(Bindings.createObjectBinding(() -> this.date.get() != null && this.time.get() != null
-                ? LocalDateTime.of(this.date.get(), this.time.get())
-                : null, this.date, this.time));
+        this.dateTime.set(calcDateTime());
+        this.date.addListener(valuesListener);
+        this.time.addListener(valuesListener);
+        // both are computed lazily when they are read
+        this.instant.bind(new ObjectBinding<Instant>() {
+            {
+                bind(dateTime, zone);
+            }
+
+            @Override
+            protected Instant computeValue() {
+                final LocalDateTime value = dateTime.get();
+                return value == null ? null : value.toInstant(offsets().offsetOf(value));
+            }
+        });
+        this.zonedDateTime.bind(new ObjectBinding<ZonedDateTime>() {
+            {
+                bind(dateTime, zone);
+            }
+
+            @Override
+            protected ZonedDateTime computeValue() {
+                final LocalDateTime value = dateTime.get();
+                return value == null ? null : ZonedDateTime.ofLocal(value, offsets().getZone(), offsets().offsetOf(value));
+            }
+        });
+        // live clock is paused while the control is out of scene, so the timer doesn't hold the control
+        this.sceneProperty().addListener((observableValue, oldScene, newScene) -> {
+            if (liveClock != null) {
+                if (newScene == null) {
+                    liveClock.stop();
+                } else {
+                    liveClock.start();
+                }
+            }
+        });
     }
 
     private final ObjectProperty<EventHandler<ActionEvent>> onAction = new ObjectPropertyBase<EventHandler<ActionEvent>>() {
@@ -81,9 +136,43 @@ public class TimeInputControl extends Control {
     public final EventHandler<ActionEvent> getOnAction() { return onActionProperty().get(); }
     public final void setOnAction(EventHandler<ActionEvent> value) { onActionProperty().set(value); }
 
+    /**
+     * Compact mode renders all fields as a single text, which suits grids showing many controls.
+     * Compact mode has no calendar button
+     */
+    private final BooleanProperty compact = new BooleanPropertyBase(false) {
+        @Override
+        protected void invalidated() {
+            if (getSkin() != null) {
+                setSkin(createDefaultSkin());
+            }
+        }
+
+        @Override
+        public Object getBean() {
+            return TimeInputControl.this;
+        }
+
+        @Override
+        public String getName() {
+            return "compact";
+        }
+    };
+    public final BooleanProperty compactProperty() { return compact; }
+    public final boolean isCompact() { return compact.get(); }
+    public final void setCompact(boolean value) { compact.set(value); }
+
+    /**
+     * Stylesheet is shared by all instances, so it's parsed once and CSS is applied on the next pulse
+     */
+    @Override
+    public String getUserAgentStylesheet() {
+        return USER_AGENT_STYLESHEET;
+    }
+
     @Override
     protected Skin<?> createDefaultSkin() {
-        return new TimeInputControlSkin(this);
+        return isCompact() ? new CompactTimeInputControlSkin(this) : new TimeInputControlSkin(this);
     }
 
     public ObjectProperty<Font> fontProperty() {
@@ -181,13 +270,26 @@ public class TimeInputControl extends Control {
         return showDate;
     }
 
+    /**
+     * Sets date and time at once, so listeners of date time and skin fields are notified once
+     *
+     * @param value new date time
+     */
     public void setLocalDateTime(LocalDateTime value) {
-        if (value != null) {
-            date.set(value.toLocalDate());
-            time.set(value.toLocalTime());
-        } else {
-            date.set(null);
-            time.set(null);
+        isUpdating = true;
+        try {
+            if (value != null) {
+                date.set(value.toLocalDate());
+                time.set(value.toLocalTime());
+            } else {
+                date.set(null);
+                time.set(null);
+            }
+        } finally {
+            isUpdating = false;
+        }
+        if (isChanged) {
+            commitValues();
         }
     }
 
@@ -199,6 +301,178 @@ public class TimeInputControl extends Control {
         return dateTime.getReadOnlyProperty();
     }
 
+    /**
+     * Starts read only live clock showing current time of the system default zone
+     */
+    public void startLiveClock() {
+        startLiveClock(getZone());
+    }
+
+    /**
+     * Starts read only live clock. Shown fields are updated at the beginning of every second without
+     * changing date and time properties, they get the last shown value when the clock is stopped.
+     * The clock runs only while the control is in a scene, it is paused when the control is removed from scene
+     * and resumed when the control is added back
+     *
+     * @param zone zone of shown time, it becomes zone of the control
+     */
+    public void startLiveClock(ZoneId zone) {
+        stopClock();
+        setZone(zone);
+        liveClock = new LiveClock(offsets(), liveSecond::set);
+        live.set(true);
+        if (getScene() != null) {
+            liveClock.start();
+        }
+    }
+
+    /**
+     * Stops live clock and sets date and time to the last shown value.
+     * Date and time are left unchanged when the clock hasn't shown any second yet
+     */
+    public void stopLiveClock() {
+        final LiveClock stoppedClock = liveClock;
+        if (stopClock() && stoppedClock.hasShownSecond()) {
+            setLocalDateTime(LocalDateTime.ofEpochSecond(liveSecond.get(), 0, ZoneOffset.UTC));
+        }
+    }
+
+    public boolean isLive() {
+        return live.get();
+    }
+
+    public ReadOnlyBooleanProperty liveProperty() {
+        return live.getReadOnlyProperty();
+    }
+
+    /**
+     * @return count of shown fraction of second digits, 3 for milliseconds and 6 for microseconds
+     */
+    public int getFractionDigits() {
+        return Math.max(0, Math.min(MAX_FRACTION_DIGITS, fractionDigits.get()));
+    }
+
+    public void setFractionDigits(int value) {
+        fractionDigits.set(Math.max(0, Math.min(MAX_FRACTION_DIGITS, value)));
+    }
+
+    public IntegerProperty fractionDigitsProperty() {
+        return fractionDigits;
+    }
+
+    public ZoneId getZone() {
+        return zone.get();
+    }
+
+    /**
+     * @param value zone in which date and time are shown and converted to instant
+     */
+    public void setZone(ZoneId value) {
+        zone.set(value);
+    }
+
+    public ObjectProperty<ZoneId> zoneProperty() {
+        return zone;
+    }
+
+    public Instant getInstant() {
+        return instant.get();
+    }
+
+    /**
+     * Shows instant in the zone of the control
+     *
+     * @param value new instant
+     */
+    public void setInstant(Instant value) {
+        setLocalDateTime(value == null ? null : LocalDateTime.ofEpochSecond(value.getEpochSecond(), value.getNano(),
+                offsets().offsetOf(value.getEpochSecond())));
+    }
+
+    public ReadOnlyObjectProperty<Instant> instantProperty() {
+        return instant.getReadOnlyProperty();
+    }
+
+    public ZonedDateTime getZonedDateTime() {
+        return zonedDateTime.get();
+    }
+
+    /**
+     * Shows the same instant in the zone of the control
+     *
+     * @param value new zoned date time
+     */
+    public void setZonedDateTime(ZonedDateTime value) {
+        setInstant(value == null ? null : value.toInstant());
+    }
+
+    public ReadOnlyObjectProperty<ZonedDateTime> zonedDateTimeProperty() {
+        return zonedDateTime.getReadOnlyProperty();
+    }
+
+    /**
+     * @return offsets of the actual zone, cached until the zone is changed
+     */
+    private ZoneOffsetCache offsets() {
+        final ZoneId actualZone = zone.get() == null ? ZoneId.systemDefault() : zone.get();
+        if (!actualZone.equals(offsets.getZone())) {
+            offsets = new ZoneOffsetCache(actualZone);
+        }
+        return offsets;
+    }
+
+    /**
+     * @return local epoch second shown by live clock
+     */
+    long getLiveSecond() {
+        return liveSecond.get();
+    }
+
+    /**
+     * @return observable invalidated on every second of live clock
+     */
+    Observable liveSecondObservable() {
+        return liveSecond;
+    }
+
+    private boolean stopClock() {
+        if (liveClock == null) {
+            return false;
+        }
+        liveClock.stop();
+        liveClock = null;
+        live.set(false);
+        return true;
+    }
+
+    /**
+     * @return observable invalidated once per atomic change of date or time
+     */
+    Observable valuesObservable() {
+        return revision;
+    }
+
+    private void valuesChanged() {
+        if (isUpdating) {
+            isChanged = true;
+        } else {
+            commitValues();
+        }
+    }
+
+    private void commitValues() {
+        isChanged = false;
+        final LocalDateTime value = calcDateTime();
+        if (!Objects.equals(value, dateTime.get())) {
+            dateTime.set(value);
+        }
+        revision.set(revision.get() + 1);
+    }
+
+    private LocalDateTime calcDateTime() {
+        return date.get() != null && time.get() != null ? LocalDateTime.of(date.get(), time.get()) : null;
+    }
+
     public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
         return TimeInputControl.StyleableProperties.STYLEABLES;
     }
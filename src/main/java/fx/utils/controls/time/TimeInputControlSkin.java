@@ -18,9 +18,11 @@
 
 package fx.utils.controls.time;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.css.PseudoClass;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
@@ -32,6 +34,7 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.control.SkinBase;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 
@@ -43,13 +46,25 @@ import java.util.stream.Stream;
 
 class TimeInputControlSkin extends SkinBase<TimeInputControl> {
     private static final PseudoClass PSEUDO_CLASS_SELECTED = PseudoClass.getPseudoClass("selected");
-    private final ElementText hourText, minuteText, secondText;
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final String[] TWO_DIGITS = new String[100];
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000,
+            100_000_000, 1_000_000_000};
+
+    static {
+        for (int value = 0; value < TWO_DIGITS.length; value++) {
+            TWO_DIGITS[value] = String.format("%02d", value);
+        }
+    }
+
+    private final ElementText hourText, minuteText, secondText, fractionText;
 
     private final ElementText yearText, monthText, dayText;
 
     private final RestrictedIntegerProperty hour = new RestrictedIntegerProperty(23);
     private final RestrictedIntegerProperty minute = new RestrictedIntegerProperty(59);
     private final RestrictedIntegerProperty second = new RestrictedIntegerProperty(59);
+    private final RestrictedIntegerProperty fraction = new RestrictedIntegerProperty(999_999_999);
 
     private final RestrictedIntegerProperty year = new RestrictedIntegerProperty(9999, 0);
     private final RestrictedIntegerProperty month = new RestrictedIntegerProperty(12, 1);
@@ -58,22 +73,30 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
 
     private final ObjectProperty<LocalTime> time = new SimpleObjectProperty<>();
     private final ObjectProperty<LocalDate> date = new SimpleObjectProperty<>();
+    private final InvalidationListener valuesListener = observable -> refreshFields();
+    private final InvalidationListener liveListener = observable -> showLiveSecond();
+    private final InvalidationListener fractionDigitsListener = observable -> fractionDigitsChanged();
+    private final ChangeListener<Boolean> focusListener = (observableValue, aBoolean, t1) -> focusChanged(t1);
+    private DatePicker datePicker;
     private boolean isJustFocused;
+    private boolean isRefreshing;
+    private long liveEpochDay = Long.MIN_VALUE;
     private String currentValue;
 
     protected TimeInputControlSkin(TimeInputControl control) {
         super(control);
         date.bindBidirectional(control.dateProperty());
-        date.addListener((observableValue, date1, newDate) -> updateDateFields(newDate));
         time.bindBidirectional(control.timeProperty());
-        time.addListener((observableValue, localTime, newTime) -> updateFields(newTime));
+        control.valuesObservable().addListener(valuesListener);
+        control.liveSecondObservable().addListener(liveListener);
         day.setMaxValueSupplier(this::calcMaxDay);
-        updateFields(time.get());
-        updateDateFields(date.get());
+        fraction.setMaxValueSupplier(() -> POWERS_OF_TEN[control.getFractionDigits()] - 1);
+        refreshFields();
 
         hourText = new ElementText(hour);
         minuteText = new ElementText(minute);
         secondText = new ElementText(second);
+        fractionText = new ElementText(fraction);
         yearText = new ElementText(year);
         monthText = new ElementText(month);
         dayText = new ElementText(day);
@@ -81,6 +104,10 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
 
         secondText.managedProperty().bind(secondText.visibleProperty());
         secondText.visibleProperty().bind(getSkinnable().showSecondsProperty());
+        fractionText.managedProperty().bind(fractionText.visibleProperty());
+        fractionText.visibleProperty().bind(getSkinnable().showSecondsProperty()
+                .and(getSkinnable().fractionDigitsProperty().greaterThan(0)));
+        control.fractionDigitsProperty().addListener(fractionDigitsListener);
 
         final Node datePicker = createDatePicker();
         final Node timePicker = createTimePicker();
@@ -90,17 +117,44 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
         container.maxWidthProperty().bind(container.widthProperty());
         getChildren().add(container);
 
-        Stream.of(hour, minute, second).forEach(property -> property.addListener((observableValue, number, t1) -> updateTime()));
-        Stream.of(year, month, day).forEach(property -> property.addListener((observableValue, number, t1) -> updateDate()));
-        getSkinnable().focusedProperty().addListener((observableValue, aBoolean, t1) -> {
-            if (t1) {
-                if (getSkinnable().isShowDate()) {
-                    dayText.requestFocus();
-                } else {
-                    hourText.requestFocus();
-                }
+        Stream.of(hour, minute, second, fraction).forEach(property -> property.addListener((observableValue, number, t1) -> {
+            if (!isRefreshing) {
+                updateTime();
+            }
+        }));
+        Stream.of(year, month, day).forEach(property -> property.addListener((observableValue, number, t1) -> {
+            if (!isRefreshing) {
+                updateDate();
             }
-        });
+        }));
+        getSkinnable().focusedProperty().addListener(focusListener);
+    }
+
+    @Override
+    public void dispose() {
+        final TimeInputControl control = getSkinnable();
+        control.valuesObservable().removeListener(valuesListener);
+        control.liveSecondObservable().removeListener(liveListener);
+        control.fractionDigitsProperty().removeListener(fractionDigitsListener);
+        control.focusedProperty().removeListener(focusListener);
+        date.unbindBidirectional(control.dateProperty());
+        time.unbindBidirectional(control.timeProperty());
+        super.dispose();
+    }
+
+    private void focusChanged(boolean isFocused) {
+        if (isFocused) {
+            if (getSkinnable().isShowDate()) {
+                dayText.requestFocus();
+            } else {
+                hourText.requestFocus();
+            }
+        }
+    }
+
+    private void fractionDigitsChanged() {
+        refreshFields();
+        fractionText.refresh();
     }
 
     private Node createTimePicker() {
@@ -108,7 +162,9 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
                 createSeparator(minuteText, ":"),
                 elementContainer(minuteText),
                 createSeparator(secondText, ":"),
-                elementContainer(secondText));
+                elementContainer(secondText),
+                createSeparator(fractionText, "."),
+                elementContainer(fractionText));
         timeContainer.setAlignment(Pos.CENTER_LEFT);
         timeContainer.visibleProperty().bind(getSkinnable().showTimeProperty());
         timeContainer.managedProperty().bind(timeContainer.visibleProperty());
@@ -120,21 +176,17 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
     }
 
     private Node createDatePicker() {
-        final DatePicker datePicker = new DatePicker();
-        date.bindBidirectional(datePicker.valueProperty());
-        datePicker.setVisible(false);
-        datePicker.setManaged(false);
         final Button button = new Button();
         button.setFocusTraversable(false);
         button.getStyleClass().add("time-input-control-button");
-        button.setOnAction(event -> datePicker.show());
+        button.disableProperty().bind(getSkinnable().liveProperty());
         final HBox dateContainer = new HBox(elementContainer(dayText),
                 createSeparator(monthText, "."),
                 elementContainer(monthText),
                 createSeparator(yearText, "."),
                 elementContainer(yearText),
-                button,
-                datePicker);
+                button);
+        button.setOnAction(event -> showCalendar(dateContainer));
         HBox.setMargin(button, new Insets(0, 8, 0, 8));
         dateContainer.setAlignment(Pos.CENTER_LEFT);
         dateContainer.visibleProperty().bind(getSkinnable().showDateProperty());
@@ -142,11 +194,39 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
         return dateContainer;
     }
 
+    /**
+     * Date picker is heavy and rarely used, so it's created only when calendar is requested
+     * and released as soon as its popup is hidden
+     */
+    private void showCalendar(Pane container) {
+        if (datePicker == null) {
+            final DatePicker picker = new DatePicker(date.get());
+            picker.setVisible(false);
+            picker.setManaged(false);
+            picker.valueProperty().addListener((observableValue, oldDate, newDate) -> {
+                if (newDate != null) {
+                    date.set(newDate);
+                }
+            });
+            picker.setOnHidden(event -> {
+                container.getChildren().remove(picker);
+                datePicker = null;
+            });
+            container.getChildren().add(picker);
+            // skin of the picker is required to show its popup
+            picker.applyCss();
+            datePicker = picker;
+        }
+        datePicker.show();
+    }
+
     private void selectNext(Text text) {
         if (text == hourText) {
             minuteText.requestFocus();
         } else if (text == minuteText && getSkinnable().isShowSeconds()) {
             secondText.requestFocus();
+        } else if (text == secondText && fractionText.isVisible()) {
+            fractionText.requestFocus();
         } else if (text == dayText) {
             monthText.requestFocus();
         } else if (text == monthText) {
@@ -157,7 +237,9 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
     }
 
     private void selectPrevious(Text text) {
-        if (text == secondText) {
+        if (text == fractionText) {
+            secondText.requestFocus();
+        } else if (text == secondText) {
             minuteText.requestFocus();
         } else if (text == minuteText) {
             hourText.requestFocus();
@@ -178,6 +260,50 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
         return container;
     }
 
+    /**
+     * Shows date and time of the control. Fields don't write values back while they are refreshed,
+     * so no intermediate dates are produced
+     */
+    private void refreshFields() {
+        isRefreshing = true;
+        try {
+            updateFields(time.get());
+            updateDateFields(date.get());
+            liveEpochDay = Long.MIN_VALUE;
+        } finally {
+            isRefreshing = false;
+        }
+    }
+
+    /**
+     * Shows second of live clock. Fields are computed arithmetically and date fields are touched
+     * only when the day changes, so only changed texts are updated
+     */
+    private void showLiveSecond() {
+        final long localSecond = getSkinnable().getLiveSecond();
+        final long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        final int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+        isRefreshing = true;
+        try {
+            hour.set(secondOfDay / 3600);
+            minute.set(secondOfDay / 60 % 60);
+            second.set(secondOfDay % 60);
+            fraction.set(0);
+            if (epochDay != liveEpochDay) {
+                liveEpochDay = epochDay;
+                updateDateFields(LocalDate.ofEpochDay(epochDay));
+            }
+        } finally {
+            isRefreshing = false;
+        }
+    }
+
+    private static String format(int value, int digits) {
+        return digits == 2 && value >= 0 && value < TWO_DIGITS.length
+                ? TWO_DIGITS[value]
+                : String.format("%0" + digits + "d", value);
+    }
+
     private void updateDateFields(LocalDate newDate) {
         if (newDate != null) {
             year.set(newDate.getYear());
@@ -198,6 +324,7 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
             hour.set(time.getHour());
             minute.set(time.getMinute());
             second.set(time.getSecond());
+            fraction.set(time.getNano() / POWERS_OF_TEN[9 - getSkinnable().getFractionDigits()]);
         }
     }
 
@@ -205,7 +332,25 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
         int h = hour.get();
         int m = minute.get();
         int s = getSkinnable().isShowSeconds() ? second.get() : 0;
-        time.set(LocalTime.of(h, m, s));
+        time.set(LocalTime.of(h, m, s, calcNano()));
+    }
+
+    /**
+     * Nanoseconds of edited time. Digits beyond the shown fraction are kept from the current time,
+     * so a coarser display doesn't truncate the value
+     */
+    private int calcNano() {
+        final LocalTime current = time.get();
+        if (!getSkinnable().isShowSeconds()) {
+            return 0;
+        }
+        final int digits = getSkinnable().getFractionDigits();
+        if (digits == 0) {
+            return current == null ? 0 : current.getNano();
+        }
+        final int unit = POWERS_OF_TEN[9 - digits];
+        final int hidden = current == null ? 0 : current.getNano() % unit;
+        return fraction.get() * unit + hidden;
     }
 
     private Text createSeparator(Text beforeText, String value) {
@@ -217,11 +362,14 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
     }
 
     private class ElementText extends Text {
+        private final RestrictedIntegerProperty property;
 
         private ElementText(RestrictedIntegerProperty property) {
+            this.property = property;
             getStyleClass().add("time-input-control-text");
             setTextOrigin(VPos.CENTER);
-            textProperty().bind(property.asString("%0" + property.getMaxDigitsCount() + "d"));
+            refresh();
+            property.addListener(observable -> refresh());
             fontProperty().bind(getSkinnable().fontProperty());
             setFocusTraversable(true);
             setOnMouseClicked(mouseEvent -> requestFocus());
@@ -230,6 +378,9 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
                 isJustFocused = true;
             });
             setOnKeyPressed(keyEvent -> {
+                if (getSkinnable().isLive()) {
+                    return;
+                }
                 if (keyEvent.getCode().isDigitKey()) {
                     if (isJustFocused) {
                         isJustFocused = false;
@@ -262,6 +413,10 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
                 }
             });
         }
+
+        private void refresh() {
+            setText(format(property.get(), property.getMaxDigitsCount()));
+        }
     }
 
     private static class RestrictedIntegerProperty extends SimpleIntegerProperty {
@@ -296,7 +451,7 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
         }
 
         int getMaxValue() {
-            return maxValue;
+            return calcMaxValue();
         }
 
         public void setMaxValueSupplier(Supplier<Integer> maxValueSupplier) {
@@ -304,7 +459,11 @@ class TimeInputControlSkin extends SkinBase<TimeInputControl> {
         }
 
         int getMaxDigitsCount() {
-            return String.valueOf(maxValue).length();
+            int digits = 1;
+            for (int value = calcMaxValue(); value >= 10; value /= 10) {
+                digits++;
+            }
+            return digits;
         }
     }
 }
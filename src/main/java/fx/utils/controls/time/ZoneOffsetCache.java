@@ -0,0 +1,92 @@
+/*
+ *
+ *  * Copyright © 2022 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package fx.utils.controls.time;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Offset of a zone cached between two offset transitions.
+ * Rules of the zone are searched only when a value falls out of the cached period, which happens rarely,
+ * so repeated conversions of nearby values cost a couple of comparisons
+ */
+final class ZoneOffsetCache {
+    // local times within this distance to transitions may be ambiguous, they are always resolved by rules
+    private static final long MAX_OFFSET_SPAN = 36 * 3600;
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private long validFrom = Long.MAX_VALUE;
+    private long validTo = Long.MIN_VALUE;
+    private ZoneOffset offset;
+
+    ZoneOffsetCache(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+    }
+
+    ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * @param epochSecond epoch second of instant
+     * @return offset of the zone at the instant
+     */
+    ZoneOffset offsetOf(long epochSecond) {
+        if (epochSecond < validFrom || epochSecond >= validTo) {
+            resolve(epochSecond);
+        }
+        return offset;
+    }
+
+    /**
+     * @param localDateTime local date time in the zone
+     * @return offset of the zone at the local date time, the earlier offset for ambiguous values
+     */
+    ZoneOffset offsetOf(LocalDateTime localDateTime) {
+        final long localSecond = localDateTime.toEpochSecond(ZoneOffset.UTC);
+        if (offset != null) {
+            final long epochSecond = localSecond - offset.getTotalSeconds();
+            if (epochSecond - MAX_OFFSET_SPAN >= validFrom && epochSecond + MAX_OFFSET_SPAN < validTo) {
+                return offset;
+            }
+        }
+        final ZoneOffset localOffset = rules.getOffset(localDateTime);
+        resolve(localSecond - localOffset.getTotalSeconds());
+        return localOffset;
+    }
+
+    private void resolve(long epochSecond) {
+        if (rules.isFixedOffset()) {
+            offset = rules.getOffset(Instant.EPOCH);
+            validFrom = Long.MIN_VALUE;
+            validTo = Long.MAX_VALUE;
+        } else {
+            final Instant instant = Instant.ofEpochSecond(epochSecond);
+            offset = rules.getOffset(instant);
+            final ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            final ZoneOffsetTransition next = rules.nextTransition(instant);
+            validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            validTo = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        }
+    }
+}
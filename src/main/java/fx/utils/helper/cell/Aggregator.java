@@ -0,0 +1,39 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+/**
+ * Incrementally maintained aggregate of column values.
+ * Values are added and removed one by one, so the result never needs a pass over all rows
+ *
+ * @param <T> the type of column values
+ */
+public interface Aggregator<T> {
+    void add(T value);
+
+    void remove(T value);
+
+    void clear();
+
+    /**
+     * @return aggregated value or null if there is nothing aggregated
+     */
+    T getResult();
+}
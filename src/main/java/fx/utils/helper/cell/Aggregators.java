@@ -0,0 +1,163 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import java.util.Comparator;
+import java.util.TreeMap;
+import java.util.function.DoubleFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Factory of common column aggregators.
+ * <br/>
+ * Usage:
+ * <pre><code>
+ *
+ *     final TableSummaryRow&lt;SomeData&gt; summaryRow = TableSummaryRow.forTable(tableView);
+ *     amountColumn.setCellFactory(StyleableTableCell.forColumn(amountColumn)
+ *               .withSummary(summaryRow, Aggregators.sum(Integer::doubleValue, sum -&gt; (int) sum))
+ *               .build());
+ *
+ * </code></pre>
+ */
+public final class Aggregators {
+    private Aggregators() {
+    }
+
+    /**
+     * @param toDouble   numeric representation of column value
+     * @param fromDouble column value of the sum
+     * @param <T>        type of column values
+     * @return aggregator of the sum of column values
+     */
+    public static <T> Aggregator<T> sum(ToDoubleFunction<T> toDouble, DoubleFunction<T> fromDouble) {
+        return new SumAggregator<>(toDouble, fromDouble, false);
+    }
+
+    /**
+     * @param toDouble   numeric representation of column value
+     * @param fromDouble column value of the average
+     * @param <T>        type of column values
+     * @return aggregator of the average of column values
+     */
+    public static <T> Aggregator<T> average(ToDoubleFunction<T> toDouble, DoubleFunction<T> fromDouble) {
+        return new SumAggregator<>(toDouble, fromDouble, true);
+    }
+
+    public static <T extends Comparable<? super T>> Aggregator<T> min() {
+        return min(Comparator.naturalOrder());
+    }
+
+    public static <T> Aggregator<T> min(Comparator<? super T> comparator) {
+        return new OrderAggregator<>(comparator, true);
+    }
+
+    public static <T extends Comparable<? super T>> Aggregator<T> max() {
+        return max(Comparator.naturalOrder());
+    }
+
+    public static <T> Aggregator<T> max(Comparator<? super T> comparator) {
+        return new OrderAggregator<>(comparator, false);
+    }
+
+    private static class SumAggregator<T> implements Aggregator<T> {
+        private final ToDoubleFunction<T> toDouble;
+        private final DoubleFunction<T> fromDouble;
+        private final boolean average;
+        private double sum;
+        private long count;
+
+        private SumAggregator(ToDoubleFunction<T> toDouble, DoubleFunction<T> fromDouble, boolean average) {
+            this.toDouble = toDouble;
+            this.fromDouble = fromDouble;
+            this.average = average;
+        }
+
+        @Override
+        public void add(T value) {
+            if (value != null) {
+                sum += toDouble.applyAsDouble(value);
+                count++;
+            }
+        }
+
+        @Override
+        public void remove(T value) {
+            if (value != null) {
+                sum -= toDouble.applyAsDouble(value);
+                count--;
+            }
+        }
+
+        @Override
+        public void clear() {
+            sum = 0;
+            count = 0;
+        }
+
+        @Override
+        public T getResult() {
+            if (count == 0) {
+                return null;
+            }
+            return fromDouble.apply(average ? sum / count : sum);
+        }
+    }
+
+    /**
+     * Keeps counts of distinct values ordered, so removal of current minimum or maximum costs O(log n)
+     */
+    private static class OrderAggregator<T> implements Aggregator<T> {
+        private final TreeMap<T, Integer> counts;
+        private final boolean min;
+
+        private OrderAggregator(Comparator<? super T> comparator, boolean min) {
+            this.counts = new TreeMap<>(comparator);
+            this.min = min;
+        }
+
+        @Override
+        public void add(T value) {
+            if (value != null) {
+                counts.merge(value, 1, Integer::sum);
+            }
+        }
+
+        @Override
+        public void remove(T value) {
+            if (value != null) {
+                counts.computeIfPresent(value, (key, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+
+        @Override
+        public void clear() {
+            counts.clear();
+        }
+
+        @Override
+        public T getResult() {
+            if (counts.isEmpty()) {
+                return null;
+            }
+            return min ? counts.firstKey() : counts.lastKey();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.TableColumnBase;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableView;
+import javafx.scene.text.Font;
+import javafx.util.StringConverter;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Utility for fitting width of table columns to their content.
+ * Instead of measuring every row it measures a bounded sample: first and last rows, random rows
+ * and rows currently shown by the table. Text is produced by the column converter, as cells show it.
+ * <pre>
+ *     final ColumnAutoFit&lt;SomeData&gt; autoFit = ColumnAutoFit.forTable(tableView);
+ *     column.setCellFactory(StyleableTableCell
+ *               .forColumn(column)
+ *               .withConverter(converter)
+ *               .withAutoFit(autoFit)
+ *               .build());
+ *     ...
+ *     autoFit.fit();
+ * </pre>
+ * Columns without registered converter are measured by string representation of their values.
+ *
+ * @param <S> the type of elements maintained by table view or tree items of tree table view
+ */
+public final class ColumnAutoFit<S> {
+    private static final int DEFAULT_SAMPLE_SIZE = 50;
+    private static final double DEFAULT_PADDING = 12.0;
+    private static final double DEFAULT_HEADER_PADDING = 28.0;
+    private static final String[] ROW_STYLE_CLASSES = {".table-row-cell", ".tree-table-row-cell"};
+    private final Map<TableColumnBase<S, ?>, StringConverter<?>> converters = new HashMap<>();
+    private final TextWidthCache widthCache = new TextWidthCache();
+    private final Random random = new Random();
+    private final Control table;
+    private final IntSupplier rowCount;
+    private final Supplier<List<? extends TableColumnBase<S, ?>>> columns;
+    private int sampleSize = DEFAULT_SAMPLE_SIZE;
+    private double padding = DEFAULT_PADDING;
+    private double headerPadding = DEFAULT_HEADER_PADDING;
+    private Font font;
+
+    private ColumnAutoFit(Control table, IntSupplier rowCount, Supplier<List<? extends TableColumnBase<S, ?>>> columns) {
+        this.table = table;
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    public static <S> ColumnAutoFit<S> forTable(TableView<S> tableView) {
+        return new ColumnAutoFit<>(tableView,
+                () -> tableView.getItems() != null ? tableView.getItems().size() : 0,
+                tableView::getVisibleLeafColumns);
+    }
+
+    public static <S> ColumnAutoFit<TreeItem<S>> forTreeTable(TreeTableView<S> treeTableView) {
+        return new ColumnAutoFit<>(treeTableView,
+                treeTableView::getExpandedItemCount,
+                treeTableView::getVisibleLeafColumns);
+    }
+
+    /**
+     * Measures column through given converter
+     *
+     * @param column    target column
+     * @param converter converter of column values
+     * @param <T>       type of column values
+     * @return this auto fit
+     */
+    public <T> ColumnAutoFit<S> withColumn(TableColumnBase<S, T> column, StringConverter<T> converter) {
+        converters.put(column, converter);
+        return this;
+    }
+
+    /**
+     * @param sampleSize count of rows taken from the head, from the tail and at random each
+     * @return this auto fit
+     */
+    public ColumnAutoFit<S> withSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+        return this;
+    }
+
+    /**
+     * @param padding space added to the widest cell text
+     * @return this auto fit
+     */
+    public ColumnAutoFit<S> withPadding(double padding) {
+        this.padding = padding;
+        return this;
+    }
+
+    /**
+     * @param headerPadding space added to column header text, it includes place of sort arrow
+     * @return this auto fit
+     */
+    public ColumnAutoFit<S> withHeaderPadding(double headerPadding) {
+        this.headerPadding = headerPadding;
+        return this;
+    }
+
+    /**
+     * @param font font of cell text. By default it is taken from a shown cell of the table
+     * @return this auto fit
+     */
+    public ColumnAutoFit<S> withFont(Font font) {
+        this.font = font;
+        return this;
+    }
+
+    /**
+     * Fits all visible leaf columns of the table
+     */
+    public void fit() {
+        fit(columns.get());
+    }
+
+    /**
+     * Fits given columns. Widths are measured first and applied to columns at once
+     *
+     * @param targetColumns columns to be fitted
+     */
+    public void fit(List<? extends TableColumnBase<S, ?>> targetColumns) {
+        final Font cellFont = font != null ? font : lookupFont();
+        final double[] widths = new double[targetColumns.size()];
+        for (int index = 0; index < widths.length; index++) {
+            widths[index] = widthCache.measure(cellFont, targetColumns.get(index).getText()) + headerPadding;
+        }
+        for (int row : sampleRows()) {
+            for (int index = 0; index < widths.length; index++) {
+                final String text = cellText(targetColumns.get(index), row);
+                widths[index] = Math.max(widths[index], widthCache.measure(cellFont, text) + padding);
+            }
+        }
+        for (int index = 0; index < widths.length; index++) {
+            final TableColumnBase<S, ?> column = targetColumns.get(index);
+            column.setPrefWidth(Math.max(column.getMinWidth(), Math.min(column.getMaxWidth(), Math.ceil(widths[index]))));
+        }
+    }
+
+    /**
+     * Clears cached text widths, e.g. after font change
+     */
+    public void clearCache() {
+        widthCache.clear();
+    }
+
+    private Set<Integer> sampleRows() {
+        final int count = rowCount.getAsInt();
+        final Set<Integer> rows = new LinkedHashSet<>();
+        for (int row = 0; row < Math.min(sampleSize, count); row++) {
+            rows.add(row);
+        }
+        for (int row = Math.max(0, count - sampleSize); row < count; row++) {
+            rows.add(row);
+        }
+        if (count > 2 * sampleSize) {
+            for (int index = 0; index < sampleSize; index++) {
+                rows.add(random.nextInt(count));
+            }
+        }
+        for (String rowStyleClass : ROW_STYLE_CLASSES) {
+            for (Node node : table.lookupAll(rowStyleClass)) {
+                if (node instanceof IndexedCell && !((IndexedCell<?>) node).isEmpty()) {
+                    final int row = ((IndexedCell<?>) node).getIndex();
+                    if (row >= 0 && row < count) {
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private <T> String cellText(TableColumnBase<S, T> column, int row) {
+        final ObservableValue<T> observableValue = column.getCellObservableValue(row);
+        final T value = observableValue != null ? observableValue.getValue() : null;
+        if (value == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked") final StringConverter<T> converter = (StringConverter<T>) converters.get(column);
+        return converter != null ? converter.toString(value) : value.toString();
+    }
+
+    private Font lookupFont() {
+        for (Node node : table.lookupAll(".table-cell-label")) {
+            if (node instanceof Labeled) {
+                return ((Labeled) node).getFont();
+            }
+        }
+        return Font.getDefault();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.helper.cell;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Sort key of a single column.
+ * Keys are computed for whole list before sorting, so the sort itself compares only prepared keys by position
+ *
+ * @param <E> the type of sorted elements (table items or tree items)
+ */
+abstract class SortKey<E> {
+
+    /**
+     * Prepares keys of all elements of the list. Keys are addressed by element position afterwards
+     *
+     * @param items    elements to be sorted
+     * @param parallel whether keys may be computed in parallel
+     */
+    abstract void prepare(List<? extends E> items, boolean parallel);
+
+    abstract int compare(int first, int second);
+
+    void invalidate(E item) {
+    }
+
+    void clear() {
+    }
+
+    static <E, T> SortKey<E> ofString(Function<E, T> valueExtractor, Function<T, String> converter) {
+        return new StringSortKey<>(item -> {
+            final T value = valueExtractor.apply(item);
+            return value == null ? null : converter.apply(value);
+        });
+    }
+
+    static <E, T> SortKey<E> ofDouble(Function<E, T> valueExtractor, ToDoubleFunction<T> converter) {
+        return new DoubleSortKey<>(item -> {
+            final T value = valueExtractor.apply(item);
+            return value == null ? Double.NaN : converter.applyAsDouble(value);
+        });
+    }
+
+    static <E, T> SortKey<E> ofComparator(Function<E, T> valueExtractor, Comparator<T> comparator) {
+        return new ComparatorSortKey<>(valueExtractor, comparator);
+    }
+
+    private static IntStream indexes(int size, boolean parallel) {
+        final IntStream indexes = IntStream.range(0, size);
+        return parallel ? indexes.parallel() : indexes;
+    }
+
+    /**
+     * Key which is computed once per element and kept until the element is invalidated
+     */
+    private abstract static class CachedSortKey<E, K> extends SortKey<E> {
+        private final Map<E, K> cache = new IdentityHashMap<>();
+        private final Function<E, K> keyExtractor;
+
+        private CachedSortKey(Function<E, K> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        @Override
+        void prepare(List<? extends E> items, boolean parallel) {
+            final int size = items.size();
+            final Object[] computed = new Object[size];
+            allocate(size);
+            // cache is only read here, so concurrent lookups are safe
+            indexes(size, parallel).forEach(index -> {
+                final E item = items.get(index);
+                K key = cache.get(item);
+                if (key == null) {
+                    key = keyExtractor.apply(item);
+                    computed[index] = key;
+                }
+                store(index, key);
+            });
+            for (int index = 0; index < size; index++) {
+                if (computed[index] != null) {
+                    @SuppressWarnings("unchecked") final K key = (K) computed[index];
+                    cache.put(items.get(index), key);
+                }
+            }
+        }
+
+        @Override
+        void invalidate(E item) {
+            cache.remove(item);
+        }
+
+        @Override
+        void clear() {
+            cache.clear();
+        }
+
+        abstract void allocate(int size);
+
+        abstract void store(int index, K key);
+    }
+
+    /**
+     * Key comparing strings by collation of the default locale, as the default column comparator does.
+     * Collation keys are computed once, so the sort compares their bytes only
+     */
+    private static class StringSortKey<E> extends CachedSortKey<E, CollationKey> {
+        private static final CollationKey NULL_KEY = new CollationKey("") {
+            @Override
+            public int compareTo(CollationKey target) {
+                return target == this ? 0 : -1;
+            }
+
+            @Override
+            public byte[] toByteArray() {
+                return new byte[0];
+            }
+        };
+        // collators are not thread safe and keys may be computed in parallel
+        private static final ThreadLocal<Collator> COLLATOR = ThreadLocal.withInitial(Collator::getInstance);
+        private CollationKey[] keys = new CollationKey[0];
+
+        private StringSortKey(Function<E, String> keyExtractor) {
+            super(item -> {
+                final String key = keyExtractor.apply(item);
+                return key == null ? NULL_KEY : COLLATOR.get().getCollationKey(key);
+            });
+        }
+
+        @Override
+        void allocate(int size) {
+            keys = new CollationKey[size];
+        }
+
+        @Override
+        void store(int index, CollationKey key) {
+            keys[index] = key;
+        }
+
+        @Override
+        int compare(int first, int second) {
+            final CollationKey firstKey = keys[first];
+            final CollationKey secondKey = keys[second];
+            if (firstKey == secondKey) {
+                return 0;
+            } else if (firstKey == NULL_KEY) {
+                return -1;
+            } else if (secondKey == NULL_KEY) {
+                return 1;
+            }
+            return firstKey.compareTo(secondKey);
+        }
+    }
+
+    private static class DoubleSortKey<E> extends CachedSortKey<E, Double> {
+        private double[] keys = new double[0];
+
+        private DoubleSortKey(ToDoubleFunction<E> keyExtractor) {
+            super(keyExtractor::applyAsDouble);
+        }
+
+        @Override
+        void allocate(int size) {
+            keys = new double[size];
+        }
+
+        @Override
+        void store(int index, Double key) {
+            keys[index] = key;
+        }
+
+        @Override
+        int compare(int first, int second) {
+            final double firstKey = keys[first];
+            final double secondKey = keys[second];
+            // NaN stands for empty value and goes first as the default column comparator does with nulls
+            if (Double.isNaN(firstKey) || Double.isNaN(secondKey)) {
+                return Boolean.compare(!Double.isNaN(firstKey), !Double.isNaN(secondKey));
+            }
+            return Double.compare(firstKey, secondKey);
+        }
+    }
+
+    private static class ComparatorSortKey<E, T> extends SortKey<E> {
+        private final Function<E, T> valueExtractor;
+        private final Comparator<T> comparator;
+        private Object[] values = new Object[0];
+
+        private ComparatorSortKey(Function<E, T> valueExtractor, Comparator<T> comparator) {
+            this.valueExtractor = valueExtractor;
+            this.comparator = comparator;
+        }
+
+        @Override
+        void prepare(List<? extends E> items, boolean parallel) {
+            final Object[] prepared = new Object[items.size()];
+            for (int index = 0; index < prepared.length; index++) {
+                prepared[index] = valueExtractor.apply(items.get(index));
+            }
+            values = prepared;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int compare(int first, int second) {
+            return comparator.compare((T) values[first], (T) values[second]);
+        }
+    }
+}
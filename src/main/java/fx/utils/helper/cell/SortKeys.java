@@ -0,0 +1,151 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.helper.cell;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Registry of column sort keys and the sorting routine shared by table and tree table sort policies
+ *
+ * @param <C> the type of column
+ * @param <E> the type of sorted elements
+ */
+final class SortKeys<C, E> {
+    static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private final Map<C, SortKey<E>> keys = new HashMap<>();
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    void register(C column, SortKey<E> key) {
+        final SortKey<E> previous = keys.put(column, key);
+        if (previous != null) {
+            previous.clear();
+        }
+    }
+
+    SortKey<E> get(C column) {
+        return keys.get(column);
+    }
+
+    void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    void invalidate(E item) {
+        keys.values().forEach(key -> key.invalidate(item));
+    }
+
+    void clear() {
+        keys.values().forEach(SortKey::clear);
+    }
+
+    /**
+     * Sorts list in place. Keys are prepared once per element and positions of elements are sorted
+     * by comparing prepared keys. The list is then reordered by the sorted ranks of its elements,
+     * so it reports a permutation and selection and incremental listeners are kept
+     *
+     * @param items      list to be sorted
+     * @param sortKeys   keys in sort order
+     * @param descending sort direction of every key
+     */
+    void sort(ObservableList<E> items, List<SortKey<E>> sortKeys, boolean[] descending) {
+        final int size = items.size();
+        if (sortKeys.isEmpty() || size < 2) {
+            return;
+        }
+        final boolean parallel = size >= parallelThreshold;
+        sortKeys.forEach(key -> key.prepare(items, parallel));
+        final int[] positions = new int[size];
+        for (int index = 0; index < size; index++) {
+            positions[index] = index;
+        }
+        final boolean isChanged = sortPositions(positions, (first, second) -> {
+            for (int index = 0; index < descending.length; index++) {
+                final int result = sortKeys.get(index).compare(first, second);
+                if (result != 0) {
+                    return descending[index] ? -result : result;
+                }
+            }
+            return 0;
+        });
+        if (isChanged) {
+            final Map<E, Integer> ranks = new IdentityHashMap<>(size);
+            for (int rank = 0; rank < size; rank++) {
+                ranks.putIfAbsent(items.get(positions[rank]), rank);
+            }
+            FXCollections.sort(items, Comparator.comparingInt(ranks::get));
+        }
+    }
+
+    /**
+     * Stable merge sort of positions
+     *
+     * @return whether order of positions is changed
+     */
+    private static boolean sortPositions(int[] positions, IntBinaryOperator comparator) {
+        final int[] buffer = positions.clone();
+        mergeSort(buffer, positions, 0, positions.length, comparator);
+        for (int index = 0; index < positions.length; index++) {
+            if (positions[index] != index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sorts range of source into target, both arrays hold the same values within the range on entry
+     */
+    private static void mergeSort(int[] source, int[] target, int from, int to, IntBinaryOperator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int index = from + 1; index < to; index++) {
+                final int value = target[index];
+                int insert = index;
+                while (insert > from && comparator.applyAsInt(target[insert - 1], value) > 0) {
+                    target[insert] = target[insert - 1];
+                    insert--;
+                }
+                target[insert] = value;
+            }
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        mergeSort(target, source, from, middle, comparator);
+        mergeSort(target, source, middle, to, comparator);
+        if (comparator.applyAsInt(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, from, target, from, to - from);
+            return;
+        }
+        for (int index = from, left = from, right = middle; index < to; index++) {
+            if (right >= to || (left < middle && comparator.applyAsInt(source[left], source[right]) <= 0)) {
+                target[index] = source[left++];
+            } else {
+                target[index] = source[right++];
+            }
+        }
+    }
+}
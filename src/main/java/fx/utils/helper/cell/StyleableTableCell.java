@@ -28,6 +28,7 @@ import javafx.util.StringConverter;
 import java.util.Collection;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 
 /**
  * This is a helper class for managing table cell representation
@@ -123,13 +124,22 @@ public class StyleableTableCell<S, T> extends TableCell<S, T> {
     }
 
     public static class StyleableTableCellBuilder<S, T> {
+        private final TableColumn<S, T> column;
         private Function<S, String> styleSupplier;
         private Function<T, String> styleValueSupplier;
         private StringConverter<T> converter;
         private Supplier<Collection<String>> styleClassSupplier;
         private double cellSize = 32.0;
+        private TableSortPolicy<S> sortPolicy;
+        private ToDoubleFunction<T> sortKey;
+        private TableSummaryRow<S> summaryRow;
+        private Aggregator<T> aggregator;
+        private ColumnAutoFit<S> autoFit;
+        private TableExporter<S> exporter;
+        private boolean isTruncatedTextTooltipShown;
 
         StyleableTableCellBuilder(TableColumn<S, T> column) {
+            this.column = column;
         }
 
         public StyleableTableCellBuilder<S, T> withStyleObjectSupplier(Function<S, String> styleSupplier) {
@@ -157,13 +167,102 @@ public class StyleableTableCell<S, T> extends TableCell<S, T> {
             return this;
         }
 
+        /**
+         * Sorts column by the text of its cells in collation order of the default locale, so numbers are ordered
+         * as text. Text is converted once per item by given sort policy
+         *
+         * @param sortPolicy sort policy installed into table view
+         * @return this builder
+         */
+        public StyleableTableCellBuilder<S, T> withSortPolicy(TableSortPolicy<S> sortPolicy) {
+            this.sortPolicy = sortPolicy;
+            this.sortKey = null;
+            return this;
+        }
+
+        /**
+         * Sorts column by numeric key of its values. Key is computed once per item by given sort policy
+         *
+         * @param sortPolicy sort policy installed into table view
+         * @param sortKey    numeric key of column values
+         * @return this builder
+         */
+        public StyleableTableCellBuilder<S, T> withSortPolicy(TableSortPolicy<S> sortPolicy, ToDoubleFunction<T> sortKey) {
+            this.sortPolicy = sortPolicy;
+            this.sortKey = sortKey;
+            return this;
+        }
+
+        /**
+         * Adds aggregate of column to summary row. Aggregate is rendered with converter and data style of this column
+         *
+         * @param summaryRow summary row of table view
+         * @param aggregator aggregator of column values
+         * @return this builder
+         */
+        public StyleableTableCellBuilder<S, T> withSummary(TableSummaryRow<S> summaryRow, Aggregator<T> aggregator) {
+            this.summaryRow = summaryRow;
+            this.aggregator = aggregator;
+            return this;
+        }
+
+        /**
+         * Measures column through converter of this column when columns are fitted
+         *
+         * @param autoFit auto fit of table columns
+         * @return this builder
+         */
+        public StyleableTableCellBuilder<S, T> withAutoFit(ColumnAutoFit<S> autoFit) {
+            this.autoFit = autoFit;
+            return this;
+        }
+
+        /**
+         * Exports column through converter of this column
+         *
+         * @param exporter exporter of table contents
+         * @return this builder
+         */
+        public StyleableTableCellBuilder<S, T> withExporter(TableExporter<S> exporter) {
+            this.exporter = exporter;
+            return this;
+        }
+
+        /**
+         * Shows full text of truncated cells in a tooltip. The tooltip is shared by all cells of the table
+         *
+         * @return this builder
+         */
+        public StyleableTableCellBuilder<S, T> withTruncatedTextTooltip() {
+            this.isTruncatedTextTooltipShown = true;
+            return this;
+        }
+
         public Callback<TableColumn<S, T>, TableCell<S, T>> build() {
+            final StringConverter<T> columnConverter = converter == null ? new SimpleStringConverter<>() : converter;
+            if (autoFit != null) {
+                autoFit.withColumn(column, columnConverter);
+            }
+            if (exporter != null) {
+                exporter.withColumn(column, columnConverter);
+            }
+            if (sortPolicy != null && sortKey != null) {
+                sortPolicy.withDoubleKey(column, sortKey);
+            } else if (sortPolicy != null) {
+                sortPolicy.withStringKey(column, columnConverter);
+            }
+            if (summaryRow != null) {
+                summaryRow.withColumn(column, aggregator, columnConverter, styleValueSupplier, styleClassSupplier);
+            }
             return (column) -> {
                 final StyleableTableCell<S, T> tableCell = new StyleableTableCell<>(styleSupplier,
                         styleValueSupplier,
                         styleClassSupplier,
                         converter);
                 tableCell.setCellSize(cellSize);
+                if (isTruncatedTextTooltipShown) {
+                    TruncatedTextTooltip.install(tableCell);
+                }
                 return tableCell;
             };
         }
@@ -27,6 +27,7 @@ import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 public class StyleableTreeTableCell<S, T> extends TreeTableCell<S, T> {
     private final Set<String> styleClassCache = new HashSet<>();
@@ -120,14 +121,23 @@ public class StyleableTreeTableCell<S, T> extends TreeTableCell<S, T> {
 
 
     public static class StyleableTreeTableCellBuilder<S, T> {
+        private final TreeTableColumn<S, T> column;
         private Function<S, String> styleSupplier;
         private StringConverter<T> converter;
         private Function<TreeItem<S>, String> styleClassSupplier;
         private Function<TreeItem<S>, Node> graphicSupplier;
         private Function<TreeItem<S>, ContextMenu> contextMenuSupplier;
+        private TreeTableSortPolicy<S> sortPolicy;
+        private ToDoubleFunction<T> sortKey;
+        private TreeTableSummaryRow<S> summaryRow;
+        private Aggregator<T> aggregator;
+        private ColumnAutoFit<TreeItem<S>> autoFit;
+        private TableExporter<TreeItem<S>> exporter;
+        private boolean isTruncatedTextTooltipShown;
 
 
         StyleableTreeTableCellBuilder(TreeTableColumn<S, T> column) {
+            this.column = column;
         }
 
         public StyleableTreeTableCellBuilder<S, T> withStyleSupplier(Function<S, String> styleSupplier) {
@@ -155,8 +165,100 @@ public class StyleableTreeTableCell<S, T> extends TreeTableCell<S, T> {
             return this;
         }
 
+        /**
+         * Sorts column by the text of its cells in collation order of the default locale, so numbers are ordered
+         * as text. Text is converted once per tree item by given sort policy
+         *
+         * @param sortPolicy sort policy installed into tree table view
+         * @return this builder
+         */
+        public StyleableTreeTableCellBuilder<S, T> withSortPolicy(TreeTableSortPolicy<S> sortPolicy) {
+            this.sortPolicy = sortPolicy;
+            this.sortKey = null;
+            return this;
+        }
+
+        /**
+         * Sorts column by numeric key of its values. Key is computed once per tree item by given sort policy
+         *
+         * @param sortPolicy sort policy installed into tree table view
+         * @param sortKey    numeric key of column values
+         * @return this builder
+         */
+        public StyleableTreeTableCellBuilder<S, T> withSortPolicy(TreeTableSortPolicy<S> sortPolicy, ToDoubleFunction<T> sortKey) {
+            this.sortPolicy = sortPolicy;
+            this.sortKey = sortKey;
+            return this;
+        }
+
+        /**
+         * Adds aggregate of column to summary row. Aggregate is rendered with converter of this column
+         *
+         * @param summaryRow summary row of tree table view
+         * @param aggregator aggregator of column values
+         * @return this builder
+         */
+        public StyleableTreeTableCellBuilder<S, T> withSummary(TreeTableSummaryRow<S> summaryRow, Aggregator<T> aggregator) {
+            this.summaryRow = summaryRow;
+            this.aggregator = aggregator;
+            return this;
+        }
+
+        /**
+         * Measures column through converter of this column when columns are fitted
+         *
+         * @param autoFit auto fit of table columns
+         * @return this builder
+         */
+        public StyleableTreeTableCellBuilder<S, T> withAutoFit(ColumnAutoFit<TreeItem<S>> autoFit) {
+            this.autoFit = autoFit;
+            return this;
+        }
+
+        /**
+         * Exports column through converter of this column
+         *
+         * @param exporter exporter of table contents
+         * @return this builder
+         */
+        public StyleableTreeTableCellBuilder<S, T> withExporter(TableExporter<TreeItem<S>> exporter) {
+            this.exporter = exporter;
+            return this;
+        }
+
+        /**
+         * Shows full text of truncated cells in a tooltip. The tooltip is shared by all cells of the table
+         *
+         * @return this builder
+         */
+        public StyleableTreeTableCellBuilder<S, T> withTruncatedTextTooltip() {
+            this.isTruncatedTextTooltipShown = true;
+            return this;
+        }
+
         public Callback<TreeTableColumn<S, T>, TreeTableCell<S, T>> build() {
-            return (column) -> new StyleableTreeTableCell<>(styleSupplier, converter, graphicSupplier, styleClassSupplier, contextMenuSupplier);
+            final StringConverter<T> columnConverter = converter == null ? new SimpleStringConverter<>() : converter;
+            if (autoFit != null) {
+                autoFit.withColumn(column, columnConverter);
+            }
+            if (exporter != null) {
+                exporter.withColumn(column, columnConverter);
+            }
+            if (sortPolicy != null && sortKey != null) {
+                sortPolicy.withDoubleKey(column, sortKey);
+            } else if (sortPolicy != null) {
+                sortPolicy.withStringKey(column, columnConverter);
+            }
+            if (summaryRow != null) {
+                summaryRow.withColumn(column, aggregator, columnConverter, null);
+            }
+            return (column) -> {
+                final StyleableTreeTableCell<S, T> tableCell = new StyleableTreeTableCell<>(styleSupplier, converter, graphicSupplier, styleClassSupplier, contextMenuSupplier);
+                if (isTruncatedTextTooltipShown) {
+                    TruncatedTextTooltip.install(tableCell);
+                }
+                return tableCell;
+            };
         }
 
     }
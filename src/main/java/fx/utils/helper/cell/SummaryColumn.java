@@ -0,0 +1,92 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.scene.control.Label;
+import javafx.util.StringConverter;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Aggregated column of summary row. It renders aggregate with the converter and style supplier of the column cells
+ *
+ * @param <E> the type of aggregated elements (table items or tree items)
+ * @param <T> the type of column values
+ */
+final class SummaryColumn<E, T> {
+    private final Label label = new Label();
+    private final Aggregator<T> aggregator;
+    private final Function<E, T> valueExtractor;
+    private final StringConverter<T> converter;
+    private final Function<T, String> styleSupplier;
+
+    SummaryColumn(Aggregator<T> aggregator,
+                  Function<E, T> valueExtractor,
+                  StringConverter<T> converter,
+                  Function<T, String> styleSupplier,
+                  Supplier<Collection<String>> styleClassSupplier) {
+        this.aggregator = aggregator;
+        this.valueExtractor = valueExtractor;
+        this.converter = converter;
+        this.styleSupplier = styleSupplier;
+        label.getStyleClass().addAll("table-cell-label", "summary-cell");
+        if (styleClassSupplier != null) {
+            label.getStyleClass().addAll(styleClassSupplier.get());
+        }
+    }
+
+    /**
+     * Adds value of the element to aggregate
+     *
+     * @param item aggregated element
+     * @return added value which has to be passed to {@link #remove(Object)} later
+     */
+    T add(E item) {
+        final T value = valueExtractor.apply(item);
+        aggregator.add(value);
+        return value;
+    }
+
+    void remove(T value) {
+        aggregator.remove(value);
+    }
+
+    void clear() {
+        aggregator.clear();
+    }
+
+    void refresh() {
+        final T result = aggregator.getResult();
+        if (result == null) {
+            label.setText(null);
+            label.setStyle("");
+        } else {
+            label.setText(converter.toString(result));
+            final String style = styleSupplier != null ? styleSupplier.apply(result) : null;
+            label.setStyle(style != null ? style : "");
+        }
+    }
+
+    Label getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableColumnBase;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row of summary cells aligned with visible leaf columns of table. It follows horizontal scrolling of the table
+ *
+ * @param <C> the type of columns
+ */
+abstract class SummaryRow<C extends TableColumnBase<?, ?>> extends HBox {
+    private final Map<C, SummaryColumn<?, ?>> summaryColumns = new HashMap<>();
+    private final HBox cells = new HBox();
+    private final Control table;
+    private final ObservableList<C> visibleLeafColumns;
+    private boolean isScrollBound;
+
+    SummaryRow(Control table, ObservableList<C> visibleLeafColumns) {
+        this.table = table;
+        this.visibleLeafColumns = visibleLeafColumns;
+        getStyleClass().add("summary-row");
+        getChildren().add(cells);
+        final Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+        setMinWidth(0);
+        visibleLeafColumns.addListener((ListChangeListener<C>) change -> updateCells());
+        updateCells();
+    }
+
+    void register(C column, SummaryColumn<?, ?> summaryColumn) {
+        summaryColumns.put(column, summaryColumn);
+        summaryColumn.refresh();
+        updateCells();
+    }
+
+    void refresh() {
+        summaryColumns.values().forEach(SummaryColumn::refresh);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (!isScrollBound) {
+            bindHorizontalScroll();
+        }
+        super.layoutChildren();
+    }
+
+    private void updateCells() {
+        final List<Node> nodes = new ArrayList<>();
+        for (C column : visibleLeafColumns) {
+            final SummaryColumn<?, ?> summaryColumn = summaryColumns.get(column);
+            final Label label = summaryColumn != null ? summaryColumn.getLabel() : new Label();
+            label.minWidthProperty().bind(column.widthProperty());
+            label.prefWidthProperty().bind(column.widthProperty());
+            label.maxWidthProperty().bind(column.widthProperty());
+            nodes.add(label);
+        }
+        cells.getChildren().setAll(nodes);
+    }
+
+    private void bindHorizontalScroll() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.HORIZONTAL) {
+                cells.translateXProperty().bind(((ScrollBar) node).valueProperty().negate());
+                cells.setMinWidth(Region.USE_PREF_SIZE);
+                isScrollBound = true;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
+import javafx.scene.control.TableColumnBase;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.util.StringConverter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Exporter of table contents to CSV or TSV.
+ * Items and columns are taken as a snapshot on FX application thread, rows are converted and written
+ * by a returned task on a background thread in chunks. Task reports progress and may be cancelled.
+ * <pre>
+ *     final TableExporter&lt;SomeData&gt; exporter = TableExporter.forTable(tableView);
+ *     column.setCellFactory(StyleableTableCell
+ *               .forColumn(column)
+ *               .withConverter(converter)
+ *               .withExporter(exporter)
+ *               .build());
+ *     ...
+ *     final Task&lt;Long&gt; task = exporter.exportTo(Paths.get("table.csv"));
+ *     progressBar.progressProperty().bind(task.progressProperty());
+ *     executor.submit(task);
+ * </pre>
+ * Cells are written through registered converters, so the output is the same as the text of styleable cells.
+ * Cell value factories and converters are called on the background thread and have to be thread safe.
+ *
+ * @param <S> the type of elements maintained by table view or tree items of tree table view
+ */
+public final class TableExporter<S> {
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private final Map<TableColumnBase<S, ?>, StringConverter<?>> converters = new HashMap<>();
+    private final Supplier<List<S>> rows;
+    private final Supplier<List<? extends TableColumnBase<S, ?>>> columns;
+    private Format format = Format.CSV;
+    private Charset charset = StandardCharsets.UTF_8;
+    private boolean isHeaderIncluded = true;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private TableExporter(Supplier<List<S>> rows, Supplier<List<? extends TableColumnBase<S, ?>>> columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public static <S> TableExporter<S> forTable(TableView<S> tableView) {
+        return new TableExporter<>(() -> tableView.getItems() != null
+                ? new ArrayList<>(tableView.getItems())
+                : Collections.emptyList(),
+                tableView::getVisibleLeafColumns);
+    }
+
+    /**
+     * Constructs exporter of tree table view. Shown tree items are exported, i.e. children of collapsed items are skipped
+     *
+     * @param treeTableView for tree table view
+     * @param <S>           type of data
+     * @return new exporter
+     */
+    public static <S> TableExporter<TreeItem<S>> forTreeTable(TreeTableView<S> treeTableView) {
+        return new TableExporter<>(() -> {
+            final List<TreeItem<S>> treeItems = new ArrayList<>();
+            final TreeItem<S> root = treeTableView.getRoot();
+            if (root != null) {
+                if (treeTableView.isShowRoot()) {
+                    treeItems.add(root);
+                }
+                if (root.isExpanded() || !treeTableView.isShowRoot()) {
+                    root.getChildren().forEach(child -> collectShown(child, treeItems));
+                }
+            }
+            return treeItems;
+        }, treeTableView::getVisibleLeafColumns);
+    }
+
+    /**
+     * Exports column through given converter
+     *
+     * @param column    target column
+     * @param converter converter of column values
+     * @param <T>       type of column values
+     * @return this exporter
+     */
+    public <T> TableExporter<S> withColumn(TableColumnBase<S, T> column, StringConverter<T> converter) {
+        converters.put(column, converter);
+        return this;
+    }
+
+    public TableExporter<S> withFormat(Format format) {
+        this.format = format;
+        return this;
+    }
+
+    public TableExporter<S> withCharset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    public TableExporter<S> withHeader(boolean isHeaderIncluded) {
+        this.isHeaderIncluded = isHeaderIncluded;
+        return this;
+    }
+
+    /**
+     * @param chunkSize count of rows written to the channel at once
+     * @return this exporter
+     */
+    public TableExporter<S> withChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Takes snapshot of the table and creates task writing it to the file.
+     * Partially written file is deleted if the task is cancelled or failed.
+     * Has to be called from FX application thread, the task has to be run on a background thread
+     *
+     * @param path target file
+     * @return export task, its value is count of written rows
+     */
+    public Task<Long> exportTo(Path path) {
+        return new ExportTask<S, Long>(this) {
+            private FileChannel channel;
+
+            @Override
+            protected Long call() throws Exception {
+                long count = 0;
+                boolean isWritten = false;
+                try {
+                    try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                        channel = fileChannel;
+                        count = export();
+                    }
+                    isWritten = !isCancelled();
+                } finally {
+                    if (!isWritten) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            void flush(StringBuilder chunk) throws IOException {
+                write(channel, chunk);
+            }
+        };
+    }
+
+    /**
+     * Takes snapshot of the table and creates task writing it to the channel. Channel is not closed by the task.
+     * Has to be called from FX application thread, the task has to be run on a background thread
+     *
+     * @param channel target channel
+     * @return export task, its value is count of written rows
+     */
+    public Task<Long> exportTo(WritableByteChannel channel) {
+        return new ExportTask<S, Long>(this) {
+            @Override
+            protected Long call() throws Exception {
+                return export();
+            }
+
+            @Override
+            void flush(StringBuilder chunk) throws IOException {
+                write(channel, chunk);
+            }
+        };
+    }
+
+    /**
+     * Takes snapshot of the table and creates task which puts text of the table to the system clipboard.
+     * Text is built on a background thread and passed to the clipboard on FX application thread
+     *
+     * @return export task, its value is the exported text
+     */
+    public Task<String> exportToClipboard() {
+        return new ExportTask<S, String>(this) {
+            private final StringBuilder text = new StringBuilder();
+
+            @Override
+            protected String call() throws Exception {
+                export();
+                return isCancelled() ? null : text.toString();
+            }
+
+            @Override
+            void flush(StringBuilder chunk) {
+                text.append(chunk);
+            }
+
+            @Override
+            protected void succeeded() {
+                final ClipboardContent content = new ClipboardContent();
+                content.putString(getValue());
+                Clipboard.getSystemClipboard().setContent(content);
+                super.succeeded();
+            }
+        };
+    }
+
+    private static <S> void collectShown(TreeItem<S> treeItem, List<TreeItem<S>> treeItems) {
+        treeItems.add(treeItem);
+        if (treeItem.isExpanded()) {
+            treeItem.getChildren().forEach(child -> collectShown(child, treeItems));
+        }
+    }
+
+    private <T> Function<S, String> cellText(TableColumnBase<S, T> column) {
+        @SuppressWarnings("unchecked") final StringConverter<T> converter = (StringConverter<T>) converters.get(column);
+        return item -> {
+            final ObservableValue<T> observableValue = column.getCellObservableValue(item);
+            final T value = observableValue != null ? observableValue.getValue() : null;
+            if (value == null) {
+                return "";
+            }
+            return converter != null ? converter.toString(value) : value.toString();
+        };
+    }
+
+    public enum Format {
+        CSV(','),
+        TSV('\t');
+
+        private final char delimiter;
+
+        Format(char delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        public char getDelimiter() {
+            return delimiter;
+        }
+
+        private void appendField(StringBuilder builder, String value) {
+            if (this == TSV) {
+                for (int index = 0; index < value.length(); index++) {
+                    final char symbol = value.charAt(index);
+                    builder.append(symbol == '\t' || symbol == '\n' || symbol == '\r' ? ' ' : symbol);
+                }
+            } else if (value.indexOf(delimiter) >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                builder.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                builder.append(value);
+            }
+        }
+    }
+
+    /**
+     * Task working on snapshot of the table. Rows are converted to text by chunks which are passed to {@link #flush}
+     */
+    private abstract static class ExportTask<S, V> extends Task<V> {
+        private final List<S> rows;
+        private final List<String> headers = new ArrayList<>();
+        private final List<Function<S, String>> cells = new ArrayList<>();
+        private final Format format;
+        private final Charset charset;
+        private final boolean isHeaderIncluded;
+        private final int chunkSize;
+        private CharsetEncoder encoder;
+        private ByteBuffer buffer;
+
+        private ExportTask(TableExporter<S> exporter) {
+            this.rows = exporter.rows.get();
+            for (TableColumnBase<S, ?> column : exporter.columns.get()) {
+                headers.add(column.getText() != null ? column.getText() : "");
+                cells.add(exporter.cellText(column));
+            }
+            this.format = exporter.format;
+            this.charset = exporter.charset;
+            this.isHeaderIncluded = exporter.isHeaderIncluded;
+            this.chunkSize = Math.max(1, exporter.chunkSize);
+        }
+
+        abstract void flush(StringBuilder chunk) throws IOException;
+
+        /**
+         * @return count of exported rows
+         */
+        long export() throws IOException {
+            final StringBuilder chunk = new StringBuilder();
+            if (isHeaderIncluded) {
+                appendRow(chunk, headers);
+            }
+            final List<String> values = new ArrayList<>(cells.size());
+            final int total = rows.size();
+            int index = 0;
+            while (index < total && !isCancelled()) {
+                final int chunkEnd = Math.min(total, index + chunkSize);
+                for (; index < chunkEnd; index++) {
+                    values.clear();
+                    final S row = rows.get(index);
+                    cells.forEach(cell -> values.add(cell.apply(row)));
+                    appendRow(chunk, values);
+                }
+                flush(chunk);
+                chunk.setLength(0);
+                updateProgress(index, total);
+            }
+            if (chunk.length() > 0) {
+                flush(chunk);
+            }
+            return index;
+        }
+
+        /**
+         * Encodes chunk through the same encoder and direct buffer, so chunks are written without intermediate arrays.
+         * Chunks end with a row, so no character is split between chunks
+         */
+        void write(WritableByteChannel channel, StringBuilder chunk) throws IOException {
+            if (encoder == null) {
+                encoder = charset.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            }
+            final CharBuffer chars = CharBuffer.wrap(chunk);
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, buffer, true);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                drain(channel);
+            } while (result.isOverflow());
+            do {
+                result = encoder.flush(buffer);
+                drain(channel);
+            } while (result.isOverflow());
+        }
+
+        private void drain(WritableByteChannel channel) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void appendRow(StringBuilder chunk, List<String> values) {
+            for (int index = 0; index < values.size(); index++) {
+                if (index > 0) {
+                    chunk.append(format.getDelimiter());
+                }
+                format.appendField(chunk, values.get(index));
+            }
+            chunk.append(System.lineSeparator());
+        }
+    }
+}
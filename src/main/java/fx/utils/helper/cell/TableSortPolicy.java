@@ -0,0 +1,165 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.helper.cell;
+
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.Callback;
+import javafx.util.StringConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sort policy of table view which computes sort keys once per item instead of on every comparison.
+ * Keys are cached until the item is removed from the table or reported as updated.
+ * <pre>
+ *     final TableSortPolicy&lt;SomeData&gt; sortPolicy = TableSortPolicy.forTable(tableView);
+ *     column.setCellFactory(StyleableTableCell
+ *               .forColumn(column)
+ *               .withConverter(converter)
+ *               .withSortPolicy(sortPolicy)
+ *               .build());
+ *     sortPolicy.withDoubleKey(amountColumn, Integer::doubleValue);
+ * </pre>
+ * Columns without registered key are sorted by their comparator.
+ * For lists larger than parallel threshold keys are computed in parallel, so cell value factories and converters
+ * of such columns have to be thread safe.
+ *
+ * @param <S> the type of elements maintained by table view
+ */
+public final class TableSortPolicy<S> implements Callback<TableView<S>, Boolean> {
+    private final SortKeys<TableColumn<S, ?>, S> sortKeys = new SortKeys<>();
+    private final ListChangeListener<S> itemsListener = change -> {
+        while (change.next()) {
+            if (change.wasUpdated()) {
+                for (int index = change.getFrom(); index < change.getTo(); index++) {
+                    sortKeys.invalidate(change.getList().get(index));
+                }
+            } else if (!change.wasPermutated()) {
+                change.getRemoved().forEach(sortKeys::invalidate);
+            }
+        }
+    };
+
+    private TableSortPolicy() {
+    }
+
+    /**
+     * Constructs sort policy and installs it into table view
+     *
+     * @param tableView for table view
+     * @param <S>       type of data
+     * @return installed sort policy
+     */
+    public static <S> TableSortPolicy<S> forTable(TableView<S> tableView) {
+        final TableSortPolicy<S> sortPolicy = new TableSortPolicy<>();
+        tableView.itemsProperty().addListener((observable, oldItems, newItems) -> {
+            if (oldItems != null) {
+                oldItems.removeListener(sortPolicy.itemsListener);
+            }
+            sortPolicy.sortKeys.clear();
+            if (newItems != null) {
+                newItems.addListener(sortPolicy.itemsListener);
+            }
+        });
+        if (tableView.getItems() != null) {
+            tableView.getItems().addListener(sortPolicy.itemsListener);
+        }
+        tableView.setSortPolicy(sortPolicy);
+        return sortPolicy;
+    }
+
+    /**
+     * Sorts column by string representation of its values
+     *
+     * @param column    target column
+     * @param converter converter of column values
+     * @param <T>       type of column values
+     * @return this sort policy
+     */
+    public <T> TableSortPolicy<S> withStringKey(TableColumn<S, T> column, StringConverter<T> converter) {
+        sortKeys.register(column, SortKey.ofString(valueExtractor(column), converter::toString));
+        return this;
+    }
+
+    /**
+     * Sorts column by numeric representation of its values
+     *
+     * @param column    target column
+     * @param converter converter of column values
+     * @param <T>       type of column values
+     * @return this sort policy
+     */
+    public <T> TableSortPolicy<S> withDoubleKey(TableColumn<S, T> column, ToDoubleFunction<T> converter) {
+        sortKeys.register(column, SortKey.ofDouble(valueExtractor(column), converter));
+        return this;
+    }
+
+    /**
+     * @param parallelThreshold minimal count of items for which keys are computed in parallel
+     * @return this sort policy
+     */
+    public TableSortPolicy<S> withParallelThreshold(int parallelThreshold) {
+        sortKeys.setParallelThreshold(parallelThreshold);
+        return this;
+    }
+
+    @Override
+    public Boolean call(TableView<S> tableView) {
+        final ObservableList<S> items = tableView.getItems();
+        if (items == null) {
+            return false;
+        }
+        if (items instanceof SortedList) {
+            return TableView.DEFAULT_SORT_POLICY.call(tableView);
+        }
+        final List<SortKey<S>> keys = new ArrayList<>();
+        final List<TableColumn<S, ?>> sortOrder = tableView.getSortOrder();
+        final boolean[] descending = new boolean[sortOrder.size()];
+        for (TableColumn<S, ?> column : sortOrder) {
+            descending[keys.size()] = column.getSortType() == TableColumn.SortType.DESCENDING;
+            keys.add(sortKey(column));
+        }
+        try {
+            sortKeys.sort(items, keys, descending);
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private <T> SortKey<S> sortKey(TableColumn<S, T> column) {
+        final SortKey<S> key = sortKeys.get(column);
+        return key != null ? key : SortKey.ofComparator(valueExtractor(column), column.getComparator());
+    }
+
+    private static <S, T> Function<S, T> valueExtractor(TableColumn<S, T> column) {
+        return item -> {
+            final ObservableValue<T> value = column.getCellObservableValue(item);
+            return value != null ? value.getValue() : null;
+        };
+    }
+}
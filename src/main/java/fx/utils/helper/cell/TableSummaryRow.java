@@ -0,0 +1,173 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.StringConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Summary (footer) row of table view. Aggregates are updated incrementally from changes of table items,
+ * so a change costs O(changed rows) instead of a pass over the whole table.
+ * <pre>
+ *     final TableSummaryRow&lt;SomeData&gt; summaryRow = TableSummaryRow.forTable(tableView);
+ *     column.setCellFactory(StyleableTableCell
+ *               .forColumn(column)
+ *               .withStyleDataSupplier(amount -&gt; amount &gt;= 10 ? "-fx-text-fill:#f00" : "-fx-text-fill:#555")
+ *               .withSummary(summaryRow, Aggregators.max())
+ *               .build());
+ *     pane.setCenter(new VBox(tableView, summaryRow));
+ * </pre>
+ * Changes of item properties are visible to the row only when items list reports updates (list with extractor).
+ *
+ * @param <S> the type of elements maintained by table view
+ */
+public final class TableSummaryRow<S> extends SummaryRow<TableColumn<S, ?>> {
+    private final List<ColumnValues<S, ?>> columnValues = new ArrayList<>();
+    private final ListChangeListener<S> itemsListener = this::itemsChanged;
+    private ObservableList<S> items;
+
+    private TableSummaryRow(TableView<S> tableView) {
+        super(tableView, tableView.getVisibleLeafColumns());
+        tableView.itemsProperty().addListener((observable, oldItems, newItems) -> setItems(newItems));
+        setItems(tableView.getItems());
+    }
+
+    /**
+     * Constructs summary row of table view. The row has to be placed into scene graph by caller
+     *
+     * @param tableView for table view
+     * @param <S>       type of data
+     * @return new summary row
+     */
+    public static <S> TableSummaryRow<S> forTable(TableView<S> tableView) {
+        return new TableSummaryRow<>(tableView);
+    }
+
+    /**
+     * Adds aggregated column to summary row
+     *
+     * @param column        target column
+     * @param aggregator    aggregator of column values
+     * @param converter     converter of aggregated value
+     * @param styleSupplier style of aggregated value, may be null
+     * @param <T>           type of column values
+     * @return this summary row
+     */
+    public <T> TableSummaryRow<S> withColumn(TableColumn<S, T> column,
+                                             Aggregator<T> aggregator,
+                                             StringConverter<T> converter,
+                                             Function<T, String> styleSupplier) {
+        return withColumn(column, aggregator, converter, styleSupplier, null);
+    }
+
+    <T> TableSummaryRow<S> withColumn(TableColumn<S, T> column,
+                                      Aggregator<T> aggregator,
+                                      StringConverter<T> converter,
+                                      Function<T, String> styleSupplier,
+                                      Supplier<Collection<String>> styleClassSupplier) {
+        final SummaryColumn<S, T> summaryColumn = new SummaryColumn<>(aggregator, item -> {
+            final ObservableValue<T> value = column.getCellObservableValue(item);
+            return value != null ? value.getValue() : null;
+        }, converter, styleSupplier, styleClassSupplier);
+        final ColumnValues<S, T> values = new ColumnValues<>(summaryColumn);
+        values.reset(items);
+        columnValues.add(values);
+        register(column, summaryColumn);
+        return this;
+    }
+
+    private void setItems(ObservableList<S> newItems) {
+        if (items != null) {
+            items.removeListener(itemsListener);
+        }
+        items = newItems;
+        if (items != null) {
+            items.addListener(itemsListener);
+        }
+        columnValues.forEach(values -> values.reset(items));
+        refresh();
+    }
+
+    private void itemsChanged(ListChangeListener.Change<? extends S> change) {
+        while (change.next()) {
+            for (ColumnValues<S, ?> values : columnValues) {
+                values.changed(change);
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * Column values aligned with table items. They are kept to remove exactly the value which was aggregated
+     */
+    private static class ColumnValues<S, T> {
+        private final ArrayList<T> values = new ArrayList<>();
+        private final SummaryColumn<S, T> summaryColumn;
+
+        private ColumnValues(SummaryColumn<S, T> summaryColumn) {
+            this.summaryColumn = summaryColumn;
+        }
+
+        private void reset(List<S> items) {
+            summaryColumn.clear();
+            values.clear();
+            if (items != null) {
+                values.ensureCapacity(items.size());
+                items.forEach(item -> values.add(summaryColumn.add(item)));
+            }
+        }
+
+        private void changed(ListChangeListener.Change<? extends S> change) {
+            final int from = change.getFrom();
+            if (change.wasPermutated()) {
+                final List<T> permutated = new ArrayList<>(values.subList(from, change.getTo()));
+                for (int index = from; index < change.getTo(); index++) {
+                    values.set(change.getPermutation(index), permutated.get(index - from));
+                }
+            } else if (change.wasUpdated()) {
+                for (int index = from; index < change.getTo(); index++) {
+                    summaryColumn.remove(values.get(index));
+                    values.set(index, summaryColumn.add(change.getList().get(index)));
+                }
+            } else {
+                if (change.wasRemoved()) {
+                    final List<T> removed = values.subList(from, from + change.getRemovedSize());
+                    removed.forEach(summaryColumn::remove);
+                    removed.clear();
+                }
+                if (change.wasAdded()) {
+                    final List<T> added = new ArrayList<>(change.getAddedSize());
+                    change.getAddedSubList().forEach(item -> added.add(summaryColumn.add(item)));
+                    values.addAll(from, added);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of text widths per font and string. Measuring text requires layout of a text node,
+ * so widths of repeated strings are taken from the cache. It has to be used from FX application thread only
+ */
+final class TextWidthCache {
+    private static final int DEFAULT_CAPACITY = 4096;
+    private final Text text = new Text();
+    private final Map<Font, Map<String, Double>> widths = new HashMap<>();
+    private final int capacity;
+
+    TextWidthCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    TextWidthCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    double measure(Font font, String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        final Map<String, Double> fontWidths = widths.computeIfAbsent(font, key -> new LinkedHashMap<String, Double>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+                return size() > capacity;
+            }
+        });
+        final Double width = fontWidths.get(value);
+        if (width != null) {
+            return width;
+        }
+        text.setFont(font);
+        text.setText(value);
+        final double measured = text.getLayoutBounds().getWidth();
+        fontWidths.put(value, measured);
+        return measured;
+    }
+
+    void clear() {
+        widths.clear();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package fx.utils.helper.cell;
+
+import fx.utils.controls.time.TimeInputControl;
+import javafx.scene.control.Control;
+import javafx.scene.input.KeyCode;
+import javafx.util.StringConverter;
+import javafx.util.converter.LocalDateTimeStringConverter;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Time input control shared by all date time cells of a table or tree table view.
+ * Only one cell is edited at a time, so the editor is attached to the edited cell and detached afterwards
+ */
+final class TimeInputCellEditor {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss");
+    static final StringConverter<LocalDateTime> DEFAULT_CONVERTER = new LocalDateTimeStringConverter(FORMATTER, FORMATTER);
+    private static final String EDITOR_KEY = TimeInputCellEditor.class.getName();
+
+    private TimeInputCellEditor() {
+    }
+
+    /**
+     * @param view table or tree table view
+     * @return editor of the view, created on the first edit
+     */
+    static TimeInputControl forView(Control view) {
+        Object editor = view.getProperties().get(EDITOR_KEY);
+        if (editor == null) {
+            editor = new TimeInputControl();
+            view.getProperties().put(EDITOR_KEY, editor);
+        }
+        return (TimeInputControl) editor;
+    }
+
+    static void attach(TimeInputControl editor, LocalDateTime value, Consumer<LocalDateTime> commit, Runnable cancel) {
+        editor.setLocalDateTime(value != null ? value : LocalDateTime.now());
+        editor.setOnAction(event -> commit.accept(editor.getLocalDateTime()));
+        editor.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                cancel.run();
+                event.consume();
+            }
+        });
+    }
+
+    /**
+     * Drops handlers of the edited cell, so the editor doesn't retain it
+     */
+    static void detach(TimeInputControl editor) {
+        editor.setOnAction(null);
+        editor.setOnKeyPressed(null);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+package fx.utils.helper.cell;
+
+import fx.utils.controls.time.TimeInputControl;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+import javafx.util.StringConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Table cell of date time column which is edited by {@link TimeInputControl}.
+ * Cells show plain text in display mode, a single editor is shared by all cells of the table view
+ * and attached only to the edited cell.
+ * <pre>
+ *     column.setCellFactory(TimeInputTableCell.forColumn());
+ *     column.setOnEditCommit(event -&gt; event.getRowValue().setTime(event.getNewValue()));
+ * </pre>
+ * Edit is committed by ENTER and cancelled by ESCAPE.
+ *
+ * @param <S> the type of elements maintained by table view
+ */
+public class TimeInputTableCell<S> extends TableCell<S, LocalDateTime> {
+    private final StringConverter<LocalDateTime> converter;
+    private TimeInputControl editor;
+
+    TimeInputTableCell(StringConverter<LocalDateTime> converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * @param <S> type of data
+     * @return cell factory with default date time format
+     */
+    public static <S> Callback<TableColumn<S, LocalDateTime>, TableCell<S, LocalDateTime>> forColumn() {
+        return forColumn(TimeInputCellEditor.DEFAULT_CONVERTER);
+    }
+
+    /**
+     * @param converter converter of shown text
+     * @param <S>       type of data
+     * @return cell factory
+     */
+    public static <S> Callback<TableColumn<S, LocalDateTime>, TableCell<S, LocalDateTime>> forColumn(
+            StringConverter<LocalDateTime> converter) {
+        return column -> new TimeInputTableCell<>(converter);
+    }
+
+    @Override
+    public void startEdit() {
+        if (!isEditable() || !getTableView().isEditable() || !getTableColumn().isEditable()) {
+            return;
+        }
+        super.startEdit();
+        if (isEditing()) {
+            editor = TimeInputCellEditor.forView(getTableView());
+            TimeInputCellEditor.attach(editor, getItem(), this::commitEdit, this::cancelEdit);
+            setText(null);
+            setGraphic(editor);
+            editor.requestFocus();
+        }
+    }
+
+    @Override
+    public void cancelEdit() {
+        super.cancelEdit();
+        detachEditor();
+        showItem(getItem(), isEmpty());
+    }
+
+    @Override
+    public void commitEdit(LocalDateTime newValue) {
+        super.commitEdit(newValue);
+        detachEditor();
+    }
+
+    @Override
+    protected void updateItem(LocalDateTime item, boolean empty) {
+        super.updateItem(item, empty);
+        if (isEditing() && !empty) {
+            setText(null);
+            setGraphic(editor);
+        } else {
+            showItem(item, empty);
+        }
+    }
+
+    private void showItem(LocalDateTime item, boolean empty) {
+        setGraphic(null);
+        setText(empty || item == null ? null : converter.toString(item));
+    }
+
+    private void detachEditor() {
+        if (editor != null) {
+            TimeInputCellEditor.detach(editor);
+            editor = null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package fx.utils.helper.cell;
+
+import javafx.beans.value.ObservableValue;
+import javafx.event.EventHandler;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeSortMode;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableView;
+import javafx.util.Callback;
+import javafx.util.StringConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Sort policy of tree table view which computes sort keys once per tree item instead of on every comparison.
+ * Keys are cached until the tree item value changes or the item is removed from the tree.
+ * <pre>
+ *     final TreeTableSortPolicy&lt;SomeData&gt; sortPolicy = TreeTableSortPolicy.forTreeTable(treeTableView);
+ *     column.setCellFactory(StyleableTreeTableCell
+ *               .forColumn(column)
+ *               .withConverter(converter)
+ *               .withSortPolicy(sortPolicy)
+ *               .build());
+ * </pre>
+ * Columns without registered key are sorted by their comparator.
+ * For child lists larger than parallel threshold keys are computed in parallel, so cell value factories and converters
+ * of such columns have to be thread safe.
+ *
+ * @param <S> the type of elements maintained by tree table view
+ */
+public final class TreeTableSortPolicy<S> implements Callback<TreeTableView<S>, Boolean> {
+    private final SortKeys<TreeTableColumn<S, ?>, TreeItem<S>> sortKeys = new SortKeys<>();
+    private final EventHandler<TreeItem.TreeModificationEvent<S>> valueChangedHandler =
+            event -> sortKeys.invalidate(event.getTreeItem());
+    private final EventHandler<TreeItem.TreeModificationEvent<S>> childrenChangedHandler =
+            event -> event.getRemovedChildren().forEach(this::invalidateBranch);
+
+    private TreeTableSortPolicy() {
+    }
+
+    /**
+     * Constructs sort policy and installs it into tree table view
+     *
+     * @param treeTableView for tree table view
+     * @param <S>           type of data
+     * @return installed sort policy
+     */
+    public static <S> TreeTableSortPolicy<S> forTreeTable(TreeTableView<S> treeTableView) {
+        final TreeTableSortPolicy<S> sortPolicy = new TreeTableSortPolicy<>();
+        treeTableView.rootProperty().addListener((observable, oldRoot, newRoot) -> {
+            if (oldRoot != null) {
+                sortPolicy.detach(oldRoot);
+            }
+            sortPolicy.sortKeys.clear();
+            if (newRoot != null) {
+                sortPolicy.attach(newRoot);
+            }
+        });
+        if (treeTableView.getRoot() != null) {
+            sortPolicy.attach(treeTableView.getRoot());
+        }
+        treeTableView.setSortPolicy(sortPolicy);
+        return sortPolicy;
+    }
+
+    /**
+     * Sorts column by string representation of its values
+     *
+     * @param column    target column
+     * @param converter converter of column values
+     * @param <T>       type of column values
+     * @return this sort policy
+     */
+    public <T> TreeTableSortPolicy<S> withStringKey(TreeTableColumn<S, T> column, StringConverter<T> converter) {
+        sortKeys.register(column, SortKey.ofString(valueExtractor(column), converter::toString));
+        return this;
+    }
+
+    /**
+     * Sorts column by numeric representation of its values
+     *
+     * @param column    target column
+     * @param converter converter of column values
+     * @param <T>       type of column values
+     * @return this sort policy
+     */
+    public <T> TreeTableSortPolicy<S> withDoubleKey(TreeTableColumn<S, T> column, ToDoubleFunction<T> converter) {
+        sortKeys.register(column, SortKey.ofDouble(valueExtractor(column), converter));
+        return this;
+    }
+
+    /**
+     * @param parallelThreshold minimal count of children for which keys are computed in parallel
+     * @return this sort policy
+     */
+    public TreeTableSortPolicy<S> withParallelThreshold(int parallelThreshold) {
+        sortKeys.setParallelThreshold(parallelThreshold);
+        return this;
+    }
+
+    @Override
+    public Boolean call(TreeTableView<S> treeTableView) {
+        final TreeItem<S> root = treeTableView.getRoot();
+        if (root == null) {
+            return false;
+        }
+        final List<SortKey<TreeItem<S>>> keys = new ArrayList<>();
+        final List<TreeTableColumn<S, ?>> sortOrder = treeTableView.getSortOrder();
+        final boolean[] descending = new boolean[sortOrder.size()];
+        for (TreeTableColumn<S, ?> column : sortOrder) {
+            descending[keys.size()] = column.getSortType() == TreeTableColumn.SortType.DESCENDING;
+            keys.add(sortKey(column));
+        }
+        try {
+            sortChildren(root, keys, descending, treeTableView.getSortMode() == TreeSortMode.ALL_DESCENDANTS);
+            return true;
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private void sortChildren(TreeItem<S> treeItem, List<SortKey<TreeItem<S>>> keys, boolean[] descending,
+                              boolean allDescendants) {
+        sortKeys.sort(treeItem.getChildren(), keys, descending);
+        if (allDescendants) {
+            treeItem.getChildren().forEach(child -> sortChildren(child, keys, descending, true));
+        }
+    }
+
+    private <T> SortKey<TreeItem<S>> sortKey(TreeTableColumn<S, T> column) {
+        final SortKey<TreeItem<S>> key = sortKeys.get(column);
+        return key != null ? key : SortKey.ofComparator(valueExtractor(column), column.getComparator());
+    }
+
+    private void attach(TreeItem<S> root) {
+        root.addEventHandler(TreeItem.valueChangedEvent(), valueChangedHandler);
+        root.addEventHandler(TreeItem.childrenModificationEvent(), childrenChangedHandler);
+    }
+
+    private void detach(TreeItem<S> root) {
+        root.removeEventHandler(TreeItem.valueChangedEvent(), valueChangedHandler);
+        root.removeEventHandler(TreeItem.childrenModificationEvent(), childrenChangedHandler);
+    }
+
+    private void invalidateBranch(TreeItem<S> treeItem) {
+        sortKeys.invalidate(treeItem);
+        treeItem.getChildren().forEach(this::invalidateBranch);
+    }
+
+    private static <S, T> Function<TreeItem<S>, T> valueExtractor(TreeTableColumn<S, T> column) {
+        return treeItem -> {
+            final ObservableValue<T> value = column.getCellObservableValue(treeItem);
+            return value != null ? value.getValue() : null;
+        };
+    }
+}
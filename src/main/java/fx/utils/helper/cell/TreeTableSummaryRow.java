@@ -0,0 +1,169 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.beans.value.ObservableValue;
+import javafx.event.EventHandler;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableView;
+import javafx.util.StringConverter;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Summary (footer) row of tree table view. All descendants of the root item are aggregated.
+ * Aggregates are updated incrementally from tree modification events, so a change costs O(changed items)
+ * instead of a pass over the whole tree.
+ * <pre>
+ *     final TreeTableSummaryRow&lt;SomeData&gt; summaryRow = TreeTableSummaryRow.forTreeTable(treeTableView);
+ *     column.setCellFactory(StyleableTreeTableCell
+ *               .forColumn(column)
+ *               .withSummary(summaryRow, Aggregators.sum(Double::doubleValue, Double::valueOf))
+ *               .build());
+ *     pane.setCenter(new VBox(treeTableView, summaryRow));
+ * </pre>
+ *
+ * @param <S> the type of elements maintained by tree table view
+ */
+public final class TreeTableSummaryRow<S> extends SummaryRow<TreeTableColumn<S, ?>> {
+    private final List<SummaryColumn<TreeItem<S>, ?>> columns = new ArrayList<>();
+    private final Map<TreeItem<S>, Object[]> values = new IdentityHashMap<>();
+    private final EventHandler<TreeItem.TreeModificationEvent<S>> valueChangedHandler = this::valueChanged;
+    private final EventHandler<TreeItem.TreeModificationEvent<S>> childrenChangedHandler = this::childrenChanged;
+    private TreeItem<S> root;
+
+    private TreeTableSummaryRow(TreeTableView<S> treeTableView) {
+        super(treeTableView, treeTableView.getVisibleLeafColumns());
+        treeTableView.rootProperty().addListener((observable, oldRoot, newRoot) -> setRoot(newRoot));
+        setRoot(treeTableView.getRoot());
+    }
+
+    /**
+     * Constructs summary row of tree table view. The row has to be placed into scene graph by caller
+     *
+     * @param treeTableView for tree table view
+     * @param <S>           type of data
+     * @return new summary row
+     */
+    public static <S> TreeTableSummaryRow<S> forTreeTable(TreeTableView<S> treeTableView) {
+        return new TreeTableSummaryRow<>(treeTableView);
+    }
+
+    /**
+     * Adds aggregated column to summary row
+     *
+     * @param column        target column
+     * @param aggregator    aggregator of column values
+     * @param converter     converter of aggregated value
+     * @param styleSupplier style of aggregated value, may be null
+     * @param <T>           type of column values
+     * @return this summary row
+     */
+    public <T> TreeTableSummaryRow<S> withColumn(TreeTableColumn<S, T> column,
+                                                 Aggregator<T> aggregator,
+                                                 StringConverter<T> converter,
+                                                 Function<T, String> styleSupplier) {
+        final SummaryColumn<TreeItem<S>, T> summaryColumn = new SummaryColumn<>(aggregator, treeItem -> {
+            final ObservableValue<T> value = column.getCellObservableValue(treeItem);
+            return value != null ? value.getValue() : null;
+        }, converter, styleSupplier, null);
+        columns.add(summaryColumn);
+        reset();
+        register(column, summaryColumn);
+        return this;
+    }
+
+    private void setRoot(TreeItem<S> newRoot) {
+        if (root != null) {
+            root.removeEventHandler(TreeItem.valueChangedEvent(), valueChangedHandler);
+            root.removeEventHandler(TreeItem.childrenModificationEvent(), childrenChangedHandler);
+        }
+        root = newRoot;
+        if (root != null) {
+            root.addEventHandler(TreeItem.valueChangedEvent(), valueChangedHandler);
+            root.addEventHandler(TreeItem.childrenModificationEvent(), childrenChangedHandler);
+        }
+        reset();
+        refresh();
+    }
+
+    private void reset() {
+        values.clear();
+        columns.forEach(SummaryColumn::clear);
+        if (root != null) {
+            root.getChildren().forEach(this::addBranch);
+        }
+    }
+
+    private void valueChanged(TreeItem.TreeModificationEvent<S> event) {
+        final TreeItem<S> treeItem = event.getTreeItem();
+        if (values.containsKey(treeItem)) {
+            removeItem(treeItem);
+            addItem(treeItem);
+            refresh();
+        }
+    }
+
+    private void childrenChanged(TreeItem.TreeModificationEvent<S> event) {
+        if (event.wasPermutated()) {
+            return;
+        }
+        event.getRemovedChildren().forEach(this::removeBranch);
+        event.getAddedChildren().forEach(this::addBranch);
+        refresh();
+    }
+
+    private void addBranch(TreeItem<S> treeItem) {
+        addItem(treeItem);
+        treeItem.getChildren().forEach(this::addBranch);
+    }
+
+    private void removeBranch(TreeItem<S> treeItem) {
+        removeItem(treeItem);
+        treeItem.getChildren().forEach(this::removeBranch);
+    }
+
+    private void addItem(TreeItem<S> treeItem) {
+        final Object[] itemValues = new Object[columns.size()];
+        for (int index = 0; index < itemValues.length; index++) {
+            itemValues[index] = columns.get(index).add(treeItem);
+        }
+        values.put(treeItem, itemValues);
+    }
+
+    private void removeItem(TreeItem<S> treeItem) {
+        final Object[] itemValues = values.remove(treeItem);
+        if (itemValues != null) {
+            for (int index = 0; index < itemValues.length; index++) {
+                remove(columns.get(index), itemValues[index]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void remove(SummaryColumn<?, T> column, Object value) {
+        column.remove((T) value);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ *
+ *  * Copyright © 2023 Shaklein Alexander
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *     http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+
+package fx.utils.helper.cell;
+
+import javafx.animation.PauseTransition;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Control;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+import javafx.scene.control.TreeTableCell;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableRow;
+import javafx.scene.control.TreeTableView;
+import javafx.scene.input.MouseEvent;
+import javafx.util.Duration;
+
+/**
+ * Tooltip with full text of truncated cells. A single tooltip is shared by all cells of a table
+ * and it is shown only if text of hovered cell is wider than the cell. Text widths are cached per table.
+ * Cells share the same event handlers, so installing the tooltip allocates nothing per cell
+ */
+final class TruncatedTextTooltip {
+    private static final String PROPERTY_KEY = TruncatedTextTooltip.class.getName();
+    private static final Duration SHOW_DELAY = Duration.millis(700);
+    private static final double CURSOR_OFFSET = 16.0;
+    // default indentation of tree table rows, it's not exposed by row skin
+    private static final double INDENT_PER_LEVEL = 10.0;
+    private static final EventHandler<MouseEvent> ENTERED_HANDLER = TruncatedTextTooltip::entered;
+    private static final EventHandler<MouseEvent> MOVED_HANDLER = TruncatedTextTooltip::moved;
+    private static final EventHandler<MouseEvent> EXITED_HANDLER = TruncatedTextTooltip::exited;
+    private final Tooltip tooltip = new Tooltip();
+    private final PauseTransition showDelay = new PauseTransition(SHOW_DELAY);
+    private final TextWidthCache widthCache = new TextWidthCache();
+    private Labeled owner;
+    private double screenX;
+    private double screenY;
+
+    private TruncatedTextTooltip() {
+        tooltip.setWrapText(true);
+        tooltip.setMaxWidth(600);
+        showDelay.setOnFinished(event -> show());
+    }
+
+    /**
+     * Installs truncated text tooltip into the cell. The cell has to be a cell of table view or tree table view
+     *
+     * @param cell target cell
+     */
+    static void install(Labeled cell) {
+        cell.addEventHandler(MouseEvent.MOUSE_ENTERED, ENTERED_HANDLER);
+        cell.addEventHandler(MouseEvent.MOUSE_MOVED, MOVED_HANDLER);
+        cell.addEventHandler(MouseEvent.MOUSE_EXITED, EXITED_HANDLER);
+    }
+
+    private static void entered(MouseEvent event) {
+        final Control table = findTable((Node) event.getSource());
+        final Labeled cell = (Labeled) event.getSource();
+        final Labeled textOwner = textOwner(cell);
+        if (table != null && textOwner != null) {
+            final TruncatedTextTooltip truncatedTextTooltip = (TruncatedTextTooltip) table.getProperties()
+                    .computeIfAbsent(PROPERTY_KEY, key -> new TruncatedTextTooltip());
+            truncatedTextTooltip.entered(cell, textOwner, event);
+        }
+    }
+
+    private static void moved(MouseEvent event) {
+        final TruncatedTextTooltip truncatedTextTooltip = forEvent(event);
+        if (truncatedTextTooltip != null) {
+            truncatedTextTooltip.updatePosition(event);
+        }
+    }
+
+    private static void exited(MouseEvent event) {
+        final TruncatedTextTooltip truncatedTextTooltip = forEvent(event);
+        if (truncatedTextTooltip != null) {
+            truncatedTextTooltip.hide();
+        }
+    }
+
+    private static TruncatedTextTooltip forEvent(MouseEvent event) {
+        final Control table = findTable((Node) event.getSource());
+        return table != null ? (TruncatedTextTooltip) table.getProperties().get(PROPERTY_KEY) : null;
+    }
+
+    private static Control findTable(Node node) {
+        Parent parent = node.getParent();
+        while (parent != null && !(parent instanceof TableView) && !(parent instanceof TreeTableView)) {
+            parent = parent.getParent();
+        }
+        return (Control) parent;
+    }
+
+    private void entered(Labeled cell, Labeled textOwner, MouseEvent event) {
+        if (cell == textOwner ? isTruncated(cell) : isGraphicTruncated(cell, textOwner)) {
+            owner = textOwner;
+            updatePosition(event);
+            showDelay.playFromStart();
+        }
+    }
+
+    private void updatePosition(MouseEvent event) {
+        screenX = event.getScreenX();
+        screenY = event.getScreenY();
+    }
+
+    private void hide() {
+        owner = null;
+        showDelay.stop();
+        tooltip.hide();
+    }
+
+    private void show() {
+        if (owner != null && owner.getScene() != null && owner.getScene().getWindow() != null) {
+            tooltip.setText(owner.getText());
+            tooltip.show(owner, screenX, screenY + CURSOR_OFFSET);
+        }
+    }
+
+    /**
+     * @return the cell itself if it shows text, otherwise its graphic showing text
+     */
+    private static Labeled textOwner(Labeled cell) {
+        if (cell.getText() != null && !cell.getText().isEmpty()) {
+            return cell;
+        }
+        final Node graphic = cell.getGraphic();
+        if (graphic instanceof Labeled && ((Labeled) graphic).getText() != null) {
+            return (Labeled) graphic;
+        }
+        return null;
+    }
+
+    private boolean isTruncated(Labeled labeled) {
+        double availableWidth = labeled.getWidth() - labeled.snappedLeftInset() - labeled.snappedRightInset();
+        final Node graphic = labeled.getGraphic();
+        final ContentDisplay contentDisplay = labeled.getContentDisplay();
+        if (graphic != null && (contentDisplay == ContentDisplay.LEFT || contentDisplay == ContentDisplay.RIGHT)) {
+            availableWidth -= graphic.prefWidth(-1) + labeled.getGraphicTextGap();
+        }
+        return widthCache.measure(labeled.getFont(), labeled.getText()) > availableWidth + 0.5;
+    }
+
+    /**
+     * Graphic is laid out at its preferred width and clipped by the cell, so its text is measured
+     * against content width of the cell
+     */
+    private boolean isGraphicTruncated(Labeled cell, Labeled graphic) {
+        final double availableWidth = cell.getWidth() - cell.snappedLeftInset() - cell.snappedRightInset()
+                - treeIndent(cell) - graphic.snappedLeftInset() - graphic.snappedRightInset();
+        return widthCache.measure(graphic.getFont(), graphic.getText()) > availableWidth + 0.5;
+    }
+
+    /**
+     * @return width of indentation and disclosure node preceding content of tree column cell, zero for other cells
+     */
+    private static double treeIndent(Labeled cell) {
+        if (!(cell instanceof TreeTableCell)) {
+            return 0;
+        }
+        final TreeTableCell<?, ?> treeTableCell = (TreeTableCell<?, ?>) cell;
+        final TreeTableView<?> treeTableView = treeTableCell.getTreeTableView();
+        final TreeTableRow<?> row = treeTableCell.getTreeTableRow();
+        if (treeTableView == null || row == null || row.getTreeItem() == null) {
+            return 0;
+        }
+        final TreeTableColumn<?, ?> treeColumn = treeTableView.getTreeColumn() != null
+                ? treeTableView.getTreeColumn()
+                : treeTableView.getVisibleLeafColumn(0);
+        if (treeTableCell.getTableColumn() != treeColumn) {
+            return 0;
+        }
+        int level = treeTableView.getTreeItemLevel(row.getTreeItem());
+        if (!treeTableView.isShowRoot()) {
+            level--;
+        }
+        final Node disclosureNode = row.getDisclosureNode();
+        final double disclosureWidth = disclosureNode != null ? disclosureNode.prefWidth(-1) : 0;
+        return level * INDENT_PER_LEVEL + disclosureWidth;
+    }
+}